@@ -0,0 +1,10 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.util.ArrayList;
+
+/**
+ * The default problem store, which keeps every problem in memory.
+ */
+class ArrayProblemStore extends ArrayList<Problem> implements ProblemStore {
+}
@@ -0,0 +1,20 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+/**
+ * How an operation over many values handles the first value with problems.
+ *
+ * @since 2.5
+ */
+public enum FailurePolicy {
+    /**
+     * Stop processing at the first value with problems, and only report those problems.
+     * The remaining values are skipped.
+     */
+    FAIL_FAST,
+
+    /**
+     * Process every value, and report the problems from all of them.
+     */
+    COLLECT_ALL
+}
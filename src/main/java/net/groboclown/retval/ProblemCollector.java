@@ -1,9 +1,12 @@
 // Released under the MIT License. 
 package net.groboclown.retval;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -12,8 +15,11 @@ import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import net.groboclown.retval.function.NonnullConsumer;
+import net.groboclown.retval.function.NonnullFunction;
+import net.groboclown.retval.function.NonnullReturnFunction;
 import net.groboclown.retval.function.NonnullSupplier;
-import net.groboclown.retval.impl.CollectionUtil;
+import net.groboclown.retval.impl.BoundedProblemList;
+import net.groboclown.retval.impl.DeduplicatedProblemList;
 
 /**
  * Collects problems from multiple requests to gather data.
@@ -23,10 +29,16 @@ import net.groboclown.retval.impl.CollectionUtil;
  * for one or more values that generally take all arguments in a constructor.
  */
 public class ProblemCollector implements ProblemContainer {
-    private final List<Problem> problems = new ArrayList<>();
+    private final ProblemStore problems;
+    private long skippedCount = 0;
 
     private ProblemCollector() {
         // Use static constructors.
+        this(ProblemStore.create());
+    }
+
+    private ProblemCollector(@Nonnull final ProblemStore problems) {
+        this.problems = problems;
     }
 
     /**
@@ -39,6 +51,24 @@ public class ProblemCollector implements ProblemContainer {
         return new ProblemCollector();
     }
 
+    /**
+     * Create an empty problem collector that stores at most {@literal maxProblems} problems.
+     * Problems added after that are counted but not stored, and all the problem views of
+     * this collector end with a single summary problem that reports the dropped count.
+     *
+     * <p>Use this when the input may generate an unbounded number of problems, such as when
+     * validating an untrusted file, to keep the memory used by the collector fixed.
+     *
+     * @param maxProblems maximum number of problems to store.
+     * @return an empty, bounded problem collector.
+     * @throws IllegalArgumentException if the maximum is negative.
+     * @since 2.5
+     */
+    @Nonnull
+    public static ProblemCollector bounded(final int maxProblems) {
+        return new ProblemCollector(new BoundedProblemList(maxProblems));
+    }
+
 
     /**
      * Populate this collector from lists of problems.
@@ -121,6 +151,101 @@ public class ProblemCollector implements ProblemContainer {
         return new ProblemCollector().with(value, setter);
     }
 
+    /**
+     * Create an empty problem collector that only stores the first of each equal problem,
+     * and counts the number of times each was added.  Problems are compared with their
+     * {@link Object#equals(Object)} and {@link Object#hashCode()} methods.
+     *
+     * <p>Use this when many values are expected to report the same problem, so that the
+     * collector, and the messages generated from it, only contain each problem once.
+     *
+     * @return an empty, de-duplicating problem collector.
+     * @see #getOccurrenceCounts()
+     * @since 2.5
+     */
+    @Nonnull
+    public static ProblemCollector deduplicated() {
+        return deduplicated((problem) -> problem);
+    }
+
+    /**
+     * Create an empty problem collector that only stores the first problem for each key,
+     * and counts the number of times a problem with that key was added.
+     *
+     * @param keyFunction generates the key that identifies duplicate problems; the key must
+     *      have usable {@link Object#equals(Object)} and {@link Object#hashCode()} methods.
+     * @return an empty, de-duplicating problem collector.
+     * @see #getOccurrenceCounts()
+     * @since 2.5
+     */
+    @Nonnull
+    public static ProblemCollector deduplicated(
+            @Nonnull final NonnullFunction<Problem, ?> keyFunction
+    ) {
+        return new ProblemCollector(new DeduplicatedProblemList(keyFunction));
+    }
+
+    /**
+     * Create an empty problem collector that stores its problems in the store, such as a
+     * {@code net.groboclown.retval.io.ProblemJournal}, which writes the problems past its
+     * in-memory limit to a file.  The store must be empty.
+     *
+     * <p>{@link #anyProblems()} and {@link #validProblems()} return the store's
+     * {@link ProblemStore#snapshot()}, and {@link #debugProblems(String)} and
+     * {@link #appendProblems(Appendable, CharSequence)} read the problems one at a
+     * time.  Completing the collector into a Ret* value copies the problems into memory.
+     *
+     * @param store the empty store for the problems.
+     * @return an empty problem collector that uses the store.
+     * @throws IllegalArgumentException if the store is not empty.
+     * @since 2.5
+     */
+    @Nonnull
+    public static ProblemCollector storedIn(@Nonnull final ProblemStore store) {
+        if (! store.isEmpty()) {
+            throw new IllegalArgumentException("store must be empty");
+        }
+        return new ProblemCollector(store);
+    }
+
+    /**
+     * Get each distinct problem in this collector, along with the number of times it was
+     * added.  For collectors created with {@link #deduplicated()}, this includes the
+     * problems that were not stored.  The map is in the order the problems were first added.
+     *
+     * @return read-only map of problems to the number of times each was added.
+     * @since 2.5
+     */
+    @Nonnull
+    public Map<Problem, Long> getOccurrenceCounts() {
+        return this.problems.occurrenceCounts();
+    }
+
+    /**
+     * Get the number of problems that were not stored because this collector reached its
+     * maximum size.  This is always zero for collectors not created with
+     * {@link #bounded(int)}.
+     *
+     * @return the number of dropped problems.
+     * @since 2.5
+     */
+    public long getDroppedProblemCount() {
+        return this.problems.droppedCount();
+    }
+
+    /**
+     * Get the number of values that were not validated because a validation call reached
+     * its maximum number of failures.
+     *
+     * @return the number of skipped values.
+     * @see #validateEach(Collection, Function, int)
+     * @see ValueAccumulator#withEach(Collection, NonnullReturnFunction, int)
+     * @since 2.5
+     */
+    public long getSkippedCount() {
+        return this.skippedCount;
+    }
+
     /**
      * Adds a single problem to the collection.  Reflects a Collection "add" call.
      *
@@ -336,6 +461,45 @@ public class ProblemCollector implements ProblemContainer {
         return this;
     }
 
+    /**
+     * For each item in the {@literal values} collection, the function is
+     * called, giving it a chance to return problems associated with the
+     * value.  The function may return null to indicate no problems.  Once
+     * {@literal maxFailures} values have reported problems, the remaining values are
+     * skipped, and the number of skipped values is added to {@link #getSkippedCount()}.
+     *
+     * <p>Use a {@literal maxFailures} of 1 to stop at the first problem.
+     *
+     * @param values collection of values to call into the validation function.
+     * @param validateFunc function called for each entry to validate.
+     * @param maxFailures number of values with problems after which validation stops.
+     * @param <T> collection value type
+     * @return this instance.
+     * @throws IllegalArgumentException if {@literal maxFailures} is less than 1.
+     * @since 2.5
+     */
+    @Nonnull
+    public <T> ProblemCollector validateEach(
+            @Nonnull final Collection<T> values,
+            @Nonnull final Function<T, ProblemContainer> validateFunc,
+            final int maxFailures
+    ) {
+        checkMaxFailures(maxFailures);
+        final Iterator<T> iter = values.iterator();
+        int failures = 0;
+        int processed = 0;
+        while (failures < maxFailures && iter.hasNext()) {
+            final ProblemContainer res = validateFunc.apply(iter.next());
+            processed++;
+            if (res != null && res.hasProblems()) {
+                res.joinProblemsWith(this.problems);
+                failures++;
+            }
+        }
+        addSkippedCount(values.size() - processed);
+        return this;
+    }
+
     /**
      * Collect the problems in the argument into this problem collector,
      * and pass-through the argument's stored value.
@@ -533,6 +697,16 @@ public class ProblemCollector implements ProblemContainer {
         return WarningVal.from(value, this);
     }
 
+    void addSkippedCount(final long count) {
+        this.skippedCount += count;
+    }
+
+    static void checkMaxFailures(final int maxFailures) {
+        if (maxFailures < 1) {
+            throw new IllegalArgumentException("maxFailures must be at least 1");
+        }
+    }
+
     @Override
     public boolean isProblem() {
         return ! this.problems.isEmpty();
@@ -551,14 +725,14 @@ public class ProblemCollector implements ProblemContainer {
     @Nonnull
     @Override
     public Collection<Problem> anyProblems() {
-        return CollectionUtil.copyNonNullValues(this.problems);
+        return this.problems.snapshot();
     }
 
     @Nonnull
     @Override
     public Collection<Problem> validProblems() {
         Ret.enforceHasProblems(this.problems);
-        return CollectionUtil.copyNonNullValues(this.problems);
+        return anyProblems();
     }
 
     @Nonnull
@@ -567,6 +741,14 @@ public class ProblemCollector implements ProblemContainer {
         return Ret.joinProblemMessages(joinedWith, this.problems);
     }
 
+    @Override
+    public void appendProblems(
+            @Nonnull final Appendable out,
+            @Nonnull final CharSequence joinedWith
+    ) throws IOException {
+        Ret.joinProblemMessages(out, joinedWith, this.problems);
+    }
+
     @Override
     public void joinProblemsWith(@Nonnull final Collection<Problem> problemList) {
         problemList.addAll(this.problems);
@@ -1,6 +1,7 @@
 // Released under the MIT License. package net.groboclown.retval.v1;
 package net.groboclown.retval;
 
+import java.io.IOException;
 import java.util.Collection;
 import javax.annotation.Nonnull;
 
@@ -74,6 +75,28 @@ public interface ProblemContainer {
     @Nonnull
     String debugProblems(@Nonnull String joinedWith);
 
+    /**
+     * Append the problems into the output, which combines the {@link Object#toString()}
+     * output of each problem with the given joining string parameter.  If this object contains
+     * no problems, then nothing is appended.  This is the same text as
+     * {@link #debugProblems(String)}, but written directly into the output, such as a
+     * {@link StringBuilder}, {@link java.io.Writer} or {@link java.nio.CharBuffer}.
+     *
+     * <p>The default implementation appends the text from {@link #debugProblems(String)};
+     * implementations should override it to avoid creating the intermediate string.
+     *
+     * @param out receives the combined text of the problems.
+     * @param joinedWith the text to join multiple problem strings together.
+     * @throws IOException if the output fails to append the text.
+     * @since 2.5
+     */
+    default void appendProblems(
+            @Nonnull final Appendable out,
+            @Nonnull final CharSequence joinedWith
+    ) throws IOException {
+        out.append(debugProblems(joinedWith.toString()));
+    }
+
     /**
      * Add all problems in this container into the argument.  This has a very specific
      * usage to indicate that this container, even if it has no problems, is part of a
@@ -0,0 +1,63 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.impl.CollectionUtil;
+
+/**
+ * The list that stores the problems for a {@link ProblemCollector}.
+ * Implementations that store problems in a special way override the methods that report
+ * on them.
+ *
+ * @since 2.5
+ */
+public interface ProblemStore extends List<Problem> {
+    /**
+     * Create the default store, which keeps every problem in memory.
+     *
+     * @return a new, empty store.
+     */
+    @Nonnull
+    static ProblemStore create() {
+        return new ArrayProblemStore();
+    }
+
+    /**
+     * Get the problems currently in the store, as a read-only collection.
+     *
+     * @return the current problems.
+     */
+    @Nonnull
+    default Collection<Problem> snapshot() {
+        return CollectionUtil.copyNonNullValues(this);
+    }
+
+    /**
+     * Get the number of problems that were added but not stored.
+     *
+     * @return the number of dropped problems.
+     */
+    default long droppedCount() {
+        return 0;
+    }
+
+    /**
+     * Get each distinct problem, along with the number of times it was added, in the order
+     * the problems were first added.
+     *
+     * @return read-only map of problems to the number of times each was added.
+     */
+    @Nonnull
+    default Map<Problem, Long> occurrenceCounts() {
+        final Map<Problem, Long> ret = new LinkedHashMap<>();
+        for (final Problem problem : this) {
+            ret.merge(problem, 1L, Long::sum);
+        }
+        return Collections.unmodifiableMap(ret);
+    }
+}
@@ -1,15 +1,29 @@
 // Released under the MIT License.
 package net.groboclown.retval;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.WillClose;
+import net.groboclown.retval.function.NonnullBiFunction;
 import net.groboclown.retval.function.NonnullFunction;
 import net.groboclown.retval.function.NonnullThrowsFunction;
+import net.groboclown.retval.impl.RetGenerator;
 import net.groboclown.retval.problems.UnhandledExceptionProblem;
 
 
@@ -225,19 +239,378 @@ public class Ret {
     public static String joinProblemMessages(
             @Nonnull final String joinText, @Nonnull final Collection<Problem> problems
     ) {
-        final StringBuilder ret = new StringBuilder();
+        // Memory inefficient, but faster.
+        // The general usage of this method keeps the return value around for short times.
+        return joinProblemMessages(new StringBuilder(), joinText, problems).toString();
+    }
+
+    /**
+     * Append the problem's {@link Problem#localMessage()} text into the string builder, joined
+     * by the joinText.  If the problem list is empty, then nothing is appended.
+     *
+     * @param out receives the joined text.
+     * @param joinText text used to join together the problems.
+     * @param problems list of problems to join together.
+     * @return the {@literal out} argument.
+     * @since 2.5
+     */
+    @Nonnull
+    public static StringBuilder joinProblemMessages(
+            @Nonnull final StringBuilder out,
+            @Nonnull final CharSequence joinText,
+            @Nonnull final Collection<Problem> problems
+    ) {
         boolean first = true;
         for (final Problem problem : problems) {
             if (first) {
                 first = false;
             } else {
-                ret.append(joinText);
+                out.append(joinText);
             }
-            ret.append(problem.localMessage());
+            out.append(problem.localMessage());
         }
-        // Memory inefficient, but faster.
-        // The general usage of this method keeps the return value around for short times.
-        return ret.toString();
+        return out;
+    }
+
+    /**
+     * Append the problem's {@link Problem#localMessage()} text into the output, joined by the
+     * joinText.  If the problem list is empty, then nothing is appended.  This writes directly
+     * into the output, such as a {@link java.io.Writer} or {@link java.nio.CharBuffer},
+     * without creating an intermediate string.
+     *
+     * @param out receives the joined text.
+     * @param joinText text used to join together the problems.
+     * @param problems list of problems to join together.
+     * @param <A> type of the output.
+     * @return the {@literal out} argument.
+     * @throws IOException if the output fails to append the text.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <A extends Appendable> A joinProblemMessages(
+            @Nonnull final A out,
+            @Nonnull final CharSequence joinText,
+            @Nonnull final Collection<Problem> problems
+    ) throws IOException {
+        boolean first = true;
+        for (final Problem problem : problems) {
+            if (first) {
+                first = false;
+            } else {
+                out.append(joinText);
+            }
+            out.append(problem.localMessage());
+        }
+        return out;
+    }
+
+
+    /**
+     * Combine two values with a function, if both values have no problems.  If either
+     * value has problems, then the problems from both are returned.
+     *
+     * <p>This counts as an observation on both values.
+     *
+     * @param first first value.
+     * @param second second value.
+     * @param func function that combines the two values, called only if neither has problems.
+     * @param <A> type of the first value.
+     * @param <B> type of the second value.
+     * @param <R> type of the combined value.
+     * @return the combined value, or the problems from both values.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <A, B, R> RetVal<R> zip(
+            @Nonnull final RetVal<A> first,
+            @Nonnull final RetVal<B> second,
+            @Nonnull final NonnullBiFunction<A, B, R> func
+    ) {
+        // Both values must be checked, so that both are observed.
+        final boolean firstOk = first.isOk();
+        final boolean secondOk = second.isOk();
+        if (firstOk && secondOk) {
+            return RetVal.ok(func.apply(first.result(), second.result()));
+        }
+        return RetGenerator.valFromProblem(joinRetProblems(first, second));
+    }
+
+
+    /**
+     * Turn a collection of values into a single value containing the list of values, or
+     * the problems from every value.
+     *
+     * <p>This counts as an observation on all the values.
+     *
+     * @param values values to combine.
+     * @param <T> type of the values.
+     * @return the list of values, in the same order as the collection, or the problems.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <T> RetVal<List<T>> sequence(@Nonnull final Collection<RetVal<T>> values) {
+        return sequence(values, FailurePolicy.COLLECT_ALL);
+    }
+
+
+    /**
+     * Turn a collection of values into a single value containing the list of values, or
+     * the problems.  With the {@link FailurePolicy#FAIL_FAST} policy, only the problems from
+     * the first value with problems are returned, and the remaining values are discarded.
+     *
+     * <p>This counts as an observation on all the values, including the discarded ones.
+     *
+     * @param values values to combine.
+     * @param policy how to handle the first value with problems.
+     * @param <T> type of the values.
+     * @return the list of values, in the same order as the collection, or the problems.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <T> RetVal<List<T>> sequence(
+            @Nonnull final Collection<RetVal<T>> values,
+            @Nonnull final FailurePolicy policy
+    ) {
+        final Iterator<RetVal<T>> iter = values.iterator();
+        final RetVal<List<T>> ret = collectEach(iter, values.size(), (v) -> v, policy);
+        while (iter.hasNext()) {
+            // Skipped by the fail-fast policy.
+            discard(iter.next());
+        }
+        return ret;
+    }
+
+
+    /**
+     * Pass each input value through the function, and turn the results into a single
+     * value containing the list of results, or the problems from every result.
+     *
+     * @param input values to pass to the function.
+     * @param func function that converts each input value into a value or problems.
+     * @param <V> type of the input values.
+     * @param <T> type of the returned values.
+     * @return the list of returned values, in the same order as the input, or the problems.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <V, T> RetVal<List<T>> traverse(
+            @Nonnull final Collection<V> input,
+            @Nonnull final NonnullFunction<V, RetVal<T>> func
+    ) {
+        return traverse(input, func, FailurePolicy.COLLECT_ALL);
+    }
+
+
+    /**
+     * Pass each input value through the function, and turn the results into a single
+     * value containing the list of results, or the problems.  With the
+     * {@link FailurePolicy#FAIL_FAST} policy, the function is not called for any input value
+     * after the first result with problems.
+     *
+     * @param input values to pass to the function.
+     * @param func function that converts each input value into a value or problems.
+     * @param policy how to handle the first result with problems.
+     * @param <V> type of the input values.
+     * @param <T> type of the returned values.
+     * @return the list of returned values, in the same order as the input, or the problems.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <V, T> RetVal<List<T>> traverse(
+            @Nonnull final Collection<V> input,
+            @Nonnull final NonnullFunction<V, RetVal<T>> func,
+            @Nonnull final FailurePolicy policy
+    ) {
+        return collectEach(input.iterator(), input.size(), func, policy);
+    }
+
+
+    /**
+     * Run each task with the executor, and join their results into a single list, or
+     * the problems from all the tasks.  An exception thrown by a task, or a null value
+     * returned by a task, is turned into an {@link UnhandledExceptionProblem}.
+     *
+     * @param tasks tasks to run.
+     * @param executor runs the tasks.
+     * @param <T> type of the values.
+     * @return the list of values, in the same order as the tasks, or the problems.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <T> RetVal<List<T>> forkAll(
+            @Nonnull final Collection<Callable<RetVal<T>>> tasks,
+            @Nonnull final ExecutorService executor
+    ) {
+        return forkAll(tasks, executor, FailurePolicy.COLLECT_ALL);
+    }
+
+
+    /**
+     * Run each task with the executor, and join their results into a single list, or
+     * the problems.  An exception thrown by a task, or a null value returned by a task, is
+     * turned into an {@link UnhandledExceptionProblem}.
+     *
+     * <p>With the {@link FailurePolicy#FAIL_FAST} policy, the first task to finish with
+     * problems causes the remaining tasks to be cancelled (interrupting them if they are
+     * running), and only that task's problems are returned.  Any value produced by a
+     * cancelled task is discarded.
+     *
+     * <p>If the calling thread is interrupted while waiting for the tasks, then the
+     * remaining tasks are cancelled, the thread's interrupt flag is restored, and the
+     * interrupt is returned as a problem.  Likewise, if the executor rejects a task, then
+     * the tasks already submitted are cancelled, and the rejection is returned as a
+     * problem.
+     *
+     * <p>On JDK versions with virtual threads, a virtual thread per task executor makes
+     * a good match for tasks that wait on remote resources.
+     *
+     * @param tasks tasks to run.
+     * @param executor runs the tasks.
+     * @param policy how to handle the first task with problems.
+     * @param <T> type of the values.
+     * @return the list of values, in the same order as the tasks, or the problems.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <T> RetVal<List<T>> forkAll(
+            @Nonnull final Collection<Callable<RetVal<T>>> tasks,
+            @Nonnull final ExecutorService executor,
+            @Nonnull final FailurePolicy policy
+    ) {
+        final int size = tasks.size();
+        final AtomicReferenceArray<RetVal<T>> results = new AtomicReferenceArray<>(size);
+        final AtomicBoolean stopped = new AtomicBoolean(false);
+        final ExecutorCompletionService<Integer> service =
+                new ExecutorCompletionService<>(executor);
+        final List<Future<Integer>> futures = new ArrayList<>(size);
+        int index = 0;
+        try {
+            for (final Callable<RetVal<T>> task : tasks) {
+                final int taskIndex = index++;
+                futures.add(service.submit(() -> {
+                    RetVal<T> res;
+                    try {
+                        res = Objects.requireNonNull(task.call(), "task returned null");
+                    } catch (final ThreadDeath | VirtualMachineError err) {
+                        // never ever process these.
+                        throw err;
+                    } catch (final Throwable e) {
+                        res = RetVal.fromProblem(UnhandledExceptionProblem.wrap(e));
+                    }
+                    results.set(taskIndex, res);
+                    if (stopped.get()) {
+                        // The caller stopped waiting on the results, and may not have seen
+                        // this one.
+                        discardResult(results, taskIndex);
+                    }
+                    return taskIndex;
+                }));
+            }
+        } catch (final RuntimeException e) {
+            // Usually a RejectedExecutionException from a shut down or bounded executor.
+            stopForkAll(stopped, futures, results, -1);
+            return RetVal.fromProblem(UnhandledExceptionProblem.wrap(e));
+        }
+
+        for (int i = 0; i < size; i++) {
+            final int doneIndex;
+            try {
+                doneIndex = service.take().get();
+            } catch (final InterruptedException e) {
+                stopForkAll(stopped, futures, results, -1);
+                Thread.currentThread().interrupt();
+                return RetVal.fromProblem(UnhandledExceptionProblem.wrap(e));
+            } catch (final ExecutionException e) {
+                // The task wrapper only lets through the errors that must never be handled.
+                stopForkAll(stopped, futures, results, -1);
+                throw (Error) e.getCause();
+            }
+            final RetVal<T> res = results.get(doneIndex);
+            if (policy == FailurePolicy.FAIL_FAST && ! res.isOk()) {
+                stopForkAll(stopped, futures, results, doneIndex);
+                return res.forwardProblems();
+            }
+        }
+
+        final List<RetVal<T>> all = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            all.add(results.get(i));
+        }
+        return sequence(all);
+    }
+
+
+    private static void stopForkAll(
+            @Nonnull final AtomicBoolean stopped,
+            @Nonnull final List<? extends Future<?>> futures,
+            @Nonnull final AtomicReferenceArray<? extends ProblemContainer> results,
+            final int keepIndex
+    ) {
+        stopped.set(true);
+        for (final Future<?> future : futures) {
+            future.cancel(true);
+        }
+        for (int i = 0; i < results.length(); i++) {
+            if (i != keepIndex) {
+                discardResult(results, i);
+            }
+        }
+    }
+
+
+    // Exactly one of the caller or the task thread will take the result out
+    // of the array to discard it.
+    private static void discardResult(
+            @Nonnull final AtomicReferenceArray<? extends ProblemContainer> results,
+            final int index
+    ) {
+        final ProblemContainer res = results.getAndSet(index, null);
+        if (res != null) {
+            discard(res);
+        }
+    }
+
+
+    // Intentionally throw away the value, while still counting as an observation.
+    private static void discard(@Nonnull final ProblemContainer value) {
+        if (! value.isOk()) {
+            value.anyProblems();
+        }
+    }
+
+
+    // Values are stored directly into a presized array, and the problem list is only
+    // created when the first problem is found.
+    @Nonnull
+    private static <V, T> RetVal<List<T>> collectEach(
+            @Nonnull final Iterator<V> iter,
+            final int size,
+            @Nonnull final NonnullFunction<V, RetVal<T>> func,
+            @Nonnull final FailurePolicy policy
+    ) {
+        final Object[] results = new Object[size];
+        List<Problem> problems = null;
+        int index = 0;
+        while (iter.hasNext()) {
+            final RetVal<T> res = func.apply(iter.next());
+            if (res.isOk()) {
+                results[index++] = res.result();
+            } else {
+                if (problems == null) {
+                    problems = new ArrayList<>();
+                }
+                res.joinProblemsWith(problems);
+                if (policy == FailurePolicy.FAIL_FAST) {
+                    break;
+                }
+            }
+        }
+        if (problems != null) {
+            return RetGenerator.valFromProblem(problems);
+        }
+        @SuppressWarnings("unchecked")
+        final List<T> ret = (List<T>) Arrays.asList(results);
+        return RetVal.ok(Collections.unmodifiableList(ret));
     }
 
 
@@ -315,6 +688,76 @@ public class Ret {
     }
 
 
+    /**
+     * Runs a function with a list of closable values.  When the function completes
+     * execution, each value in the list is closed, in the reverse order of the list.  Every
+     * value is closed, even if closing an earlier one fails.  If the function or any of the
+     * close actions cause an exception, each is wrapped in a problem and returned along with
+     * any problems from the function's return value.  A function that returns {@literal null}
+     * is reported as a {@link NullPointerException} problem.
+     *
+     * <p>This is the same as nesting {@link #closeWith(AutoCloseable, NonnullThrowsFunction)}
+     * calls, without needing a function and intermediate return value for each level.
+     *
+     * @param values values passed to the function.  These will be closed after the
+     *               function is called.  Null entries are ignored.
+     * @param func function to run
+     * @param <T> type of the values passed to the function
+     * @param <R> return type
+     * @return the function's return value, or the exceptions wrapped in problems.
+     * @since 2.5
+     */
+    @WillClose
+    @Nonnull
+    public static <T extends AutoCloseable, R> RetVal<R> closeWithAll(
+            @Nonnull final List<T> values,
+            @Nonnull final NonnullThrowsFunction<List<T>, RetVal<R>> func
+    ) {
+        RetVal<R> ret = null;
+        List<Problem> problems = null;
+        try {
+            ret = Objects.requireNonNull(func.apply(values), "function returned null");
+        } catch (final ThreadDeath | VirtualMachineError err) {
+            // never ever process these.
+            throw err;
+        } catch (final Throwable e) {
+            problems = new ArrayList<>();
+            problems.add(UnhandledExceptionProblem.wrap(e));
+        }
+
+        final ListIterator<T> iter = values.listIterator(values.size());
+        while (iter.hasPrevious()) {
+            final T value = iter.previous();
+            if (value == null) {
+                continue;
+            }
+            try {
+                value.close();
+            } catch (final ThreadDeath | VirtualMachineError err) {
+                // never ever process these.
+                throw err;
+            } catch (final Throwable e) {
+                if (problems == null) {
+                    problems = new ArrayList<>();
+                }
+                problems.add(UnhandledExceptionProblem.wrap(e));
+            }
+        }
+
+        if (problems == null) {
+            return ret;
+        }
+        if (ret != null) {
+            // The ret value must pass its observation on to
+            // the return object.  This means it must be
+            // observed, even if it's okay.
+            ret.isOk();
+            problems.addAll(0, ret.anyProblems());
+        }
+        return RetGenerator.valFromProblem(problems);
+    }
+
+
     @WillClose
     @Nonnull
     private static <T extends AutoCloseable, R extends ProblemContainer> R closeWithWrapped(
@@ -0,0 +1,193 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collector;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.groboclown.retval.function.NonnullFunction;
+import net.groboclown.retval.impl.RetGenerator;
+
+/**
+ * {@link Collector} implementations for streams of Ret* values.
+ *
+ * <p>Each collector keeps its values and problems in a per-thread partial result, and merges
+ * the partial results together, so they work correctly with parallel streams:
+ * <pre>
+ *     RetVal&lt;List&lt;Row&gt;&gt; rows = lines.parallelStream()
+ *             .map(this::parseRow)
+ *             .collect(RetCollectors.toRetList());
+ * </pre>
+ *
+ * <p>Collecting a value counts as an observation on that value.
+ *
+ * @since 2.5
+ */
+public class RetCollectors {
+    private RetCollectors() {
+        // Prevent instantiation.
+    }
+
+    /**
+     * Collect a stream of values into a list of values, or all the problems from the
+     * values.
+     *
+     * @param <T> type of the values.
+     * @return the collector.
+     */
+    @Nonnull
+    public static <T> Collector<RetVal<T>, ?, RetVal<List<T>>> toRetList() {
+        return Collector.of(
+                () -> new Partial<List<T>>(new ArrayList<>()),
+                (partial, value) -> partial.add(value, List::add),
+                (left, right) -> left.merge(right, List::addAll),
+                (partial) -> {
+                    if (partial.problems != null) {
+                        return RetGenerator.valFromProblem(partial.problems);
+                    }
+                    return RetVal.ok(Collections.unmodifiableList(partial.values));
+                });
+    }
+
+    /**
+     * Collect a stream of values into a map, or all the problems from the values.  Like
+     * {@link java.util.stream.Collectors#toMap(java.util.function.Function,
+     * java.util.function.Function)}, duplicate keys generate an {@link IllegalStateException}.
+     *
+     * @param keyMapper function that generates the map key for a value.
+     * @param valueMapper function that generates the map value for a value.
+     * @param <T> type of the values.
+     * @param <K> type of the map keys.
+     * @param <V> type of the map values.
+     * @return the collector.
+     */
+    @Nonnull
+    public static <T, K, V> Collector<RetVal<T>, ?, RetVal<Map<K, V>>> toRetMap(
+            @Nonnull final NonnullFunction<T, K> keyMapper,
+            @Nonnull final NonnullFunction<T, V> valueMapper
+    ) {
+        return toRetMap(keyMapper, valueMapper, (first, second) -> {
+            throw new IllegalStateException("Duplicate key (attempted merging values "
+                    + first + " and " + second + ")");
+        });
+    }
+
+    /**
+     * Collect a stream of values into a map, or all the problems from the values.
+     *
+     * @param keyMapper function that generates the map key for a value.
+     * @param valueMapper function that generates the map value for a value.
+     * @param mergeFunction resolves the map value when two values have the same key.
+     * @param <T> type of the values.
+     * @param <K> type of the map keys.
+     * @param <V> type of the map values.
+     * @return the collector.
+     */
+    @Nonnull
+    public static <T, K, V> Collector<RetVal<T>, ?, RetVal<Map<K, V>>> toRetMap(
+            @Nonnull final NonnullFunction<T, K> keyMapper,
+            @Nonnull final NonnullFunction<T, V> valueMapper,
+            @Nonnull final BinaryOperator<V> mergeFunction
+    ) {
+        return Collector.of(
+                () -> new Partial<Map<K, V>>(new HashMap<>()),
+                (partial, value) -> partial.add(value, (map, v) -> map.merge(
+                        keyMapper.apply(v), valueMapper.apply(v), mergeFunction)),
+                (left, right) -> left.merge(right, (leftMap, rightMap) -> {
+                    for (final Map.Entry<K, V> entry : rightMap.entrySet()) {
+                        leftMap.merge(entry.getKey(), entry.getValue(), mergeFunction);
+                    }
+                }),
+                (partial) -> {
+                    if (partial.problems != null) {
+                        return RetGenerator.valFromProblem(partial.problems);
+                    }
+                    return RetVal.ok(Collections.unmodifiableMap(partial.values));
+                });
+    }
+
+    /**
+     * Collect a stream of values into a warning that contains the list of all values
+     * without problems, along with the problems from the other values.
+     *
+     * @param <T> type of the values.
+     * @return the collector.
+     */
+    @Nonnull
+    public static <T> Collector<RetVal<T>, ?, WarningVal<List<T>>> partitioningProblems() {
+        return Collector.of(
+                () -> new Partial<List<T>>(new ArrayList<>()),
+                (partial, value) -> partial.add(value, List::add),
+                (left, right) -> left.merge(right, List::addAll),
+                (partial) -> WarningVal.from(
+                        Collections.unmodifiableList(partial.values),
+                        partial.problems == null
+                                ? ProblemCollector.from()
+                                : ProblemCollector.from(partial.problems)));
+    }
+
+    /**
+     * Collect the problems from a stream of problem containers into a single
+     * {@link ProblemCollector}.
+     *
+     * @return the collector.
+     */
+    @Nonnull
+    public static Collector<ProblemContainer, ?, ProblemCollector> toProblemCollector() {
+        return Collector.of(
+                () -> new ArrayList<Problem>(),
+                (problems, value) -> value.joinProblemsWith(problems),
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                },
+                (problems) -> ProblemCollector.from().withProblems(problems));
+    }
+
+
+    // A partial result for a single thread.  The problems list is only created
+    // when the first problem is found.
+    private static final class Partial<C> {
+        private final C values;
+        @Nullable
+        private List<Problem> problems;
+
+        private Partial(@Nonnull final C values) {
+            this.values = values;
+        }
+
+        private <T> void add(
+                @Nonnull final RetVal<T> value,
+                @Nonnull final BiConsumer<C, T> adder
+        ) {
+            if (value.isOk()) {
+                adder.accept(this.values, value.result());
+            } else {
+                if (this.problems == null) {
+                    this.problems = new ArrayList<>();
+                }
+                value.joinProblemsWith(this.problems);
+            }
+        }
+
+        @Nonnull
+        private Partial<C> merge(
+                @Nonnull final Partial<C> right,
+                @Nonnull final BiConsumer<C, C> valueMerger
+        ) {
+            valueMerger.accept(this.values, right.values);
+            if (this.problems == null) {
+                this.problems = right.problems;
+            } else if (right.problems != null) {
+                this.problems.addAll(right.problems);
+            }
+            return this;
+        }
+    }
+}
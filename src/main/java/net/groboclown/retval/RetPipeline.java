@@ -0,0 +1,255 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.groboclown.retval.function.NonnullConsumer;
+import net.groboclown.retval.function.NonnullFunction;
+import net.groboclown.retval.function.NonnullParamFunction;
+import net.groboclown.retval.impl.RetGenerator;
+
+/**
+ * Builds up a chain of steps against a value, and runs them all at once to produce a single
+ * {@link RetVal}.
+ *
+ * <p>Chaining {@link RetVal#then(NonnullFunction)} and {@link RetVal#map(NonnullFunction)}
+ * calls creates a new return object for each step, which is immediately thrown away by
+ * the next step.  The pipeline instead records each step, and only creates the final
+ * return object when {@link #run()} is called:
+ * <pre>
+ *     RetVal&lt;Port&gt; port = RetPipeline.start(rawText)
+ *             .map(String::trim)
+ *             .then(this::parseInteger)
+ *             .thenValidate(this::checkPortRange)
+ *             .map(Port::new)
+ *             .run();
+ * </pre>
+ *
+ * <p>The steps run in order, and the first step that reports a problem stops the pipeline; the
+ * later steps are not run.  The values returned by the {@literal then} steps are
+ * observed by the pipeline, so the caller only needs to check the final value.
+ *
+ * <p>Each step call returns a new pipeline that shares the steps recorded so far, rather
+ * than copying them.  The earlier pipeline is not changed, so it can still be run, or
+ * extended in a different direction.  Instances are not thread safe.
+ *
+ * @param <T> type of the value produced by the current end of the pipeline.
+ * @since 2.5
+ */
+public class RetPipeline<T> {
+    private static final byte STEP_THEN = 0;
+    private static final byte STEP_MAP = 1;
+    private static final byte STEP_VALIDATE = 2;
+    private static final byte STEP_RUN = 3;
+    private static final int INITIAL_SIZE = 8;
+
+    @Nullable
+    private final Object start;
+    @Nullable
+    private final RetVal<?> startProblems;
+    // Shared with the pipelines this one was extended from, and the pipelines extended
+    // from it.  Only the first size steps belong to this pipeline.
+    private final Steps steps;
+    private final int size;
+
+    private RetPipeline(@Nullable final Object start, @Nullable final RetVal<?> startProblems) {
+        this(start, startProblems, new Steps(), 0);
+    }
+
+    private RetPipeline(
+            @Nullable final Object start,
+            @Nullable final RetVal<?> startProblems,
+            @Nonnull final Steps steps,
+            final int size
+    ) {
+        this.start = start;
+        this.startProblems = startProblems;
+        this.steps = steps;
+        this.size = size;
+    }
+
+    /**
+     * Start a new pipeline with a non-null value.
+     *
+     * @param value initial value passed to the first step.
+     * @param <T> type of the value.
+     * @return a new pipeline.
+     */
+    @Nonnull
+    public static <T> RetPipeline<T> start(@Nonnull final T value) {
+        return new RetPipeline<>(Objects.requireNonNull(value, "value"), null);
+    }
+
+    /**
+     * Start a new pipeline with a value that may have problems.  If the value has problems,
+     * then none of the steps will run, and the pipeline returns the problems.
+     *
+     * <p>This counts as an observation on the passed-in value.
+     *
+     * @param value initial value passed to the first step, or the problems to return.
+     * @param <T> type of the value.
+     * @return a new pipeline.
+     */
+    @Nonnull
+    public static <T> RetPipeline<T> from(@Nonnull final RetVal<T> value) {
+        if (value.isProblem()) {
+            return new RetPipeline<>(null, value);
+        }
+        return new RetPipeline<>(value.result(), null);
+    }
+
+    /**
+     * Add a step that uses the current value to create a new value, which may have problems.
+     * If the returned value has problems, then the pipeline stops.
+     *
+     * @param func function that takes the current value and returns a new value or problems.
+     * @param <R> type of the returned value.
+     * @return a new pipeline that ends with this step, producing the new type.
+     * @see RetVal#then(NonnullFunction)
+     */
+    @Nonnull
+    public <R> RetPipeline<R> then(@Nonnull final NonnullFunction<T, RetVal<R>> func) {
+        return addStep(STEP_THEN, func);
+    }
+
+    /**
+     * Add a step that transforms the current value into a new non-null value.
+     *
+     * @param func function that takes the current value and returns a transformed value.
+     * @param <R> type of the returned value.
+     * @return a new pipeline that ends with this step, producing the new type.
+     * @see RetVal#map(NonnullFunction)
+     */
+    @Nonnull
+    public <R> RetPipeline<R> map(@Nonnull final NonnullFunction<T, R> func) {
+        return addStep(STEP_MAP, func);
+    }
+
+    /**
+     * Add a step that validates the current value.  The checker may return null or a
+     * container without problems to indicate the value is valid.  If the checker returns
+     * problems, then the pipeline stops.
+     *
+     * @param checker function that checks the validity of the value.
+     * @return a new pipeline that ends with this step.
+     * @see RetVal#thenValidate(NonnullParamFunction)
+     */
+    @Nonnull
+    public RetPipeline<T> thenValidate(
+            @Nonnull final NonnullParamFunction<T, ProblemContainer> checker
+    ) {
+        return addStep(STEP_VALIDATE, checker);
+    }
+
+    /**
+     * Add a step that passes the current value to the consumer.
+     *
+     * @param consumer consumer of the current value.
+     * @return a new pipeline that ends with this step.
+     * @see RetVal#thenRun(NonnullConsumer)
+     */
+    @Nonnull
+    public RetPipeline<T> thenRun(@Nonnull final NonnullConsumer<T> consumer) {
+        return addStep(STEP_RUN, consumer);
+    }
+
+    /**
+     * Run each step in order, stopping at the first step with problems.
+     *
+     * @return the problems from the first step that reported problems, or the value
+     *      produced by the last step.
+     */
+    @Nonnull
+    public RetVal<T> run() {
+        if (this.startProblems != null) {
+            return this.startProblems.forwardProblems();
+        }
+        Object current = this.start;
+        final byte[] kinds = this.steps.kinds;
+        final Object[] steps = this.steps.steps;
+        for (int i = 0; i < this.size; i++) {
+            final byte kind = kinds[i];
+            if (kind == STEP_THEN) {
+                @SuppressWarnings("unchecked")
+                final NonnullFunction<Object, RetVal<Object>> func =
+                        (NonnullFunction<Object, RetVal<Object>>) steps[i];
+                final RetVal<Object> res = func.apply(current);
+                if (res.isProblem()) {
+                    return res.forwardProblems();
+                }
+                current = res.result();
+            } else if (kind == STEP_MAP) {
+                @SuppressWarnings("unchecked")
+                final NonnullFunction<Object, Object> func =
+                        (NonnullFunction<Object, Object>) steps[i];
+                current = Objects.requireNonNull(func.apply(current), "map result");
+            } else if (kind == STEP_VALIDATE) {
+                @SuppressWarnings("unchecked")
+                final NonnullParamFunction<Object, ProblemContainer> func =
+                        (NonnullParamFunction<Object, ProblemContainer>) steps[i];
+                final ProblemContainer problems = func.apply(current);
+                if (problems != null && problems.hasProblems()) {
+                    // Note the call to get valid problems.  For places where the container
+                    // is a Ret* value, that will trigger an observation.
+                    return RetGenerator.valFromProblem(problems.validProblems());
+                }
+            } else {
+                // STEP_RUN
+                @SuppressWarnings("unchecked")
+                final NonnullConsumer<Object> func = (NonnullConsumer<Object>) steps[i];
+                func.accept(current);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        final T ret = (T) current;
+        return RetVal.ok(ret);
+    }
+
+    @Nonnull
+    private <R> RetPipeline<R> addStep(final byte kind, @Nonnull final Object step) {
+        Objects.requireNonNull(step);
+        Steps target = this.steps;
+        if (target.size != this.size) {
+            // Another pipeline already extended this one, so this one branches off with its
+            // own copy of the steps.
+            target = new Steps(target, this.size);
+        }
+        target.add(kind, step);
+        return new RetPipeline<>(this.start, this.startProblems, target, this.size + 1);
+    }
+
+
+    // The steps recorded by a line of pipelines.  Steps are only ever added at the end.
+    private static final class Steps {
+        private byte[] kinds;
+        private Object[] steps;
+        private int size;
+
+        private Steps() {
+            this.kinds = new byte[INITIAL_SIZE];
+            this.steps = new Object[INITIAL_SIZE];
+            this.size = 0;
+        }
+
+        // Copy just the first size steps of the source.
+        private Steps(@Nonnull final Steps source, final int size) {
+            this.kinds = new byte[Math.max(INITIAL_SIZE, size * 2)];
+            this.steps = new Object[this.kinds.length];
+            System.arraycopy(source.kinds, 0, this.kinds, 0, size);
+            System.arraycopy(source.steps, 0, this.steps, 0, size);
+            this.size = size;
+        }
+
+        private void add(final byte kind, @Nonnull final Object step) {
+            if (this.size >= this.kinds.length) {
+                this.kinds = Arrays.copyOf(this.kinds, this.size * 2);
+                this.steps = Arrays.copyOf(this.steps, this.size * 2);
+            }
+            this.kinds[this.size] = kind;
+            this.steps[this.size] = step;
+            this.size++;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.function.NonnullBiFunction;
+import net.groboclown.retval.function.NonnullFunction;
+import net.groboclown.retval.function.NonnullParamFunction;
+import net.groboclown.retval.function.NonnullSupplier;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+
+/**
+ * An asynchronous counterpart to {@link RetVal}, which wraps a
+ * {@link CompletableFuture} that completes with a {@link RetVal}.
+ *
+ * <p>The chaining methods never block; they register the work to run when the underlying
+ * future completes.  Problems travel through the chain as {@link RetVal} problems, not as
+ * exceptions, so the functions passed to the chain are only called when the value has no
+ * problems:
+ * <pre>
+ *     RetStage&lt;User&gt; user = RetStage.fromFuture(client.fetchUserJson(id))
+ *             .then(this::parseUser)
+ *             .thenValidate(this::checkUserActive);
+ * </pre>
+ *
+ * <p>Exceptions thrown by the chained functions complete the underlying future
+ * exceptionally, as with any {@link CompletableFuture}.  Use {@link #exceptionsAsProblems()}
+ * to turn these into {@link UnhandledExceptionProblem} values.
+ *
+ * @param <T> type of the value.
+ * @since 2.5
+ */
+public class RetStage<T> {
+    private final CompletableFuture<RetVal<T>> future;
+
+    private RetStage(@Nonnull final CompletableFuture<RetVal<T>> future) {
+        this.future = future;
+    }
+
+    /**
+     * Wrap a completion stage that completes with a value or problems.
+     *
+     * @param stage the stage to wrap.
+     * @param <T> type of the value.
+     * @return the wrapped stage.
+     */
+    @Nonnull
+    public static <T> RetStage<T> of(@Nonnull final CompletionStage<RetVal<T>> stage) {
+        return new RetStage<>(stage.toCompletableFuture());
+    }
+
+    /**
+     * Create a stage that is already completed with the value or problems.
+     *
+     * @param value value or problems.
+     * @param <T> type of the value.
+     * @return a completed stage.
+     */
+    @Nonnull
+    public static <T> RetStage<T> completed(@Nonnull final RetVal<T> value) {
+        return new RetStage<>(CompletableFuture.completedFuture(
+                Objects.requireNonNull(value, "value")));
+    }
+
+    /**
+     * Adapt a plain completion stage.  A normal completion becomes a value, and an
+     * exceptional completion becomes an {@link UnhandledExceptionProblem}.  A completion
+     * with a null value becomes an {@link UnhandledExceptionProblem} for a
+     * {@link NullPointerException}.
+     *
+     * @param stage stage that completes with a non-null value.
+     * @param <T> type of the value.
+     * @return the adapted stage.
+     */
+    @Nonnull
+    public static <T> RetStage<T> fromFuture(@Nonnull final CompletionStage<T> stage) {
+        return new RetStage<>(stage.toCompletableFuture().handle((value, err) -> {
+            if (err != null) {
+                return RetVal.fromProblem(UnhandledExceptionProblem.wrap(unwrap(err)));
+            }
+            if (value == null) {
+                return RetVal.fromProblem(UnhandledExceptionProblem.wrap(
+                        new NullPointerException("stage completed with null")));
+            }
+            return RetVal.ok(value);
+        }));
+    }
+
+    /**
+     * Run the supplier with the executor.
+     *
+     * @param supplier generates the value or problems.
+     * @param executor runs the supplier.
+     * @param <T> type of the value.
+     * @return a stage that completes with the supplier's value.
+     */
+    @Nonnull
+    public static <T> RetStage<T> supplyAsync(
+            @Nonnull final NonnullSupplier<RetVal<T>> supplier,
+            @Nonnull final Executor executor
+    ) {
+        return new RetStage<>(CompletableFuture.supplyAsync(supplier::get, executor));
+    }
+
+    /**
+     * Combine two stages with a function, once both complete.  If either value has
+     * problems, then the returned stage has the problems from both.
+     *
+     * @param first first stage.
+     * @param second second stage.
+     * @param func function that combines the two values, called only if neither has problems.
+     * @param <A> type of the first value.
+     * @param <B> type of the second value.
+     * @param <R> type of the combined value.
+     * @return a stage that completes with the combined value or problems.
+     * @see Ret#zip(RetVal, RetVal, NonnullBiFunction)
+     */
+    @Nonnull
+    public static <A, B, R> RetStage<R> zip(
+            @Nonnull final RetStage<A> first,
+            @Nonnull final RetStage<B> second,
+            @Nonnull final NonnullBiFunction<A, B, R> func
+    ) {
+        return new RetStage<>(first.future.thenCombine(
+                second.future, (a, b) -> Ret.zip(a, b, func)));
+    }
+
+    /**
+     * Wait for all the stages to complete, and join their values into a single list, or
+     * the problems from all the stages.  This does not block; the returned stage completes
+     * once all the arguments complete.
+     *
+     * @param stages stages to join.
+     * @param <T> type of the values.
+     * @return a stage with the list of values, in the same order as the argument, or the
+     *      problems.
+     * @see Ret#sequence(Collection)
+     */
+    @Nonnull
+    public static <T> RetStage<List<T>> joinAll(@Nonnull final Collection<RetStage<T>> stages) {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[stages.size()];
+        int index = 0;
+        for (final RetStage<T> stage : stages) {
+            futures[index++] = stage.future;
+        }
+        return new RetStage<>(CompletableFuture.allOf(futures).thenApply((ignored) -> {
+            final List<RetVal<T>> values = new ArrayList<>(futures.length);
+            for (final RetStage<T> stage : stages) {
+                // Already completed, so this does not block.
+                values.add(stage.future.join());
+            }
+            return Ret.sequence(values);
+        }));
+    }
+
+    /**
+     * Once complete, pass the value to the function, if it has no problems.
+     *
+     * @param func function that takes the value and returns a new value or problems.
+     * @param <R> type of the returned value.
+     * @return a stage with the function's result, or this stage's problems.
+     * @see RetVal#then(NonnullFunction)
+     */
+    @Nonnull
+    public <R> RetStage<R> then(@Nonnull final NonnullFunction<T, RetVal<R>> func) {
+        return new RetStage<>(this.future.thenApply((value) -> value.then(func)));
+    }
+
+    /**
+     * Once complete, pass the value to the asynchronous function, if it has no problems.
+     *
+     * @param func function that takes the value and returns a new stage.
+     * @param <R> type of the returned value.
+     * @return a stage with the returned stage's result, or this stage's problems.
+     */
+    @Nonnull
+    public <R> RetStage<R> thenAsync(@Nonnull final NonnullFunction<T, RetStage<R>> func) {
+        return new RetStage<>(this.future.thenCompose((value) -> {
+            if (value.isOk()) {
+                return func.apply(value.result()).future;
+            }
+            return CompletableFuture.completedFuture(value.forwardProblems());
+        }));
+    }
+
+    /**
+     * Once complete, transform the value with the function, if it has no problems.
+     *
+     * @param func function that takes the value and returns a transformed value.
+     * @param <R> type of the returned value.
+     * @return a stage with the transformed value, or this stage's problems.
+     * @see RetVal#map(NonnullFunction)
+     */
+    @Nonnull
+    public <R> RetStage<R> map(@Nonnull final NonnullFunction<T, R> func) {
+        return new RetStage<>(this.future.thenApply((value) -> value.map(func)));
+    }
+
+    /**
+     * Once complete, validate the value with the checker, if it has no problems.
+     *
+     * @param checker function that checks the validity of the value.
+     * @return a stage with the value, or its problems.
+     * @see RetVal#thenValidate(NonnullParamFunction)
+     */
+    @Nonnull
+    public RetStage<T> thenValidate(
+            @Nonnull final NonnullParamFunction<T, ProblemContainer> checker
+    ) {
+        return new RetStage<>(this.future.thenApply((value) -> value.thenValidate(checker)));
+    }
+
+    /**
+     * Turn an exceptional completion of this stage into an {@link UnhandledExceptionProblem}.
+     *
+     * @return a stage that always completes normally.
+     */
+    @Nonnull
+    public RetStage<T> exceptionsAsProblems() {
+        return new RetStage<>(this.future.handle((value, err) -> {
+            if (err != null) {
+                return RetVal.fromProblem(UnhandledExceptionProblem.wrap(unwrap(err)));
+            }
+            return value;
+        }));
+    }
+
+    /**
+     * Get the underlying future.
+     *
+     * @return the future that completes with the value or problems.
+     */
+    @Nonnull
+    public CompletableFuture<RetVal<T>> toCompletableFuture() {
+        return this.future;
+    }
+
+
+    @Nonnull
+    private static Throwable unwrap(@Nonnull final Throwable err) {
+        if (err instanceof CompletionException && err.getCause() != null) {
+            return err.getCause();
+        }
+        return err;
+    }
+}
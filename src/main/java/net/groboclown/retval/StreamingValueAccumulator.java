@@ -0,0 +1,332 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.groboclown.retval.function.NonnullFunction;
+import net.groboclown.retval.function.NonnullReturnFunction;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+
+/**
+ * A version of {@link ValueAccumulator} that passes each accepted value on to a sink as soon
+ * as it arrives, and only keeps the problems.  Use this when the values are written out
+ * or handed off right after they are accumulated, so that they never need to be held in
+ * memory all at once:
+ * <pre>
+ *     RetVal&lt;Long&gt; imported = StreamingValueAccumulator.toQueue(rowQueue)
+ *             .withEach(lines, this::parseRow)
+ *             .thenCount();
+ * </pre>
+ *
+ * <p>If the sink fails to accept a value, then the failure is recorded as an
+ * {@link UnhandledExceptionProblem}, and all later values are dropped rather than sent to
+ * the broken sink.  Problems continue to be collected.
+ *
+ * @param <T> type of the values.
+ * @since 2.5
+ */
+public class StreamingValueAccumulator<T> implements ProblemContainer {
+    private final ProblemCollector problems = ProblemCollector.from();
+    private final Sink<T> sink;
+    private long count = 0;
+    private boolean broken = false;
+
+    private StreamingValueAccumulator(@Nonnull final Sink<T> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Create a new accumulator that passes each value to the consumer.
+     *
+     * @param consumer receives each accepted value.
+     * @param <T> type of the values.
+     * @return new instance.
+     */
+    @Nonnull
+    public static <T> StreamingValueAccumulator<T> to(
+            @Nonnull final Consumer<? super T> consumer
+    ) {
+        Objects.requireNonNull(consumer, "consumer");
+        return new StreamingValueAccumulator<>(consumer::accept);
+    }
+
+    /**
+     * Create a new accumulator that puts each value into the queue, waiting for space if
+     * necessary.  Because blocking queues do not allow null elements, adding a null value
+     * reports a problem.
+     *
+     * <p>If the thread is interrupted while waiting for space, then the interrupted flag is
+     * set again, and the interruption is reported as a problem.
+     *
+     * @param queue receives each accepted value.
+     * @param <T> type of the values.
+     * @return new instance.
+     */
+    @Nonnull
+    public static <T> StreamingValueAccumulator<T> toQueue(
+            @Nonnull final BlockingQueue<? super T> queue
+    ) {
+        Objects.requireNonNull(queue, "queue");
+        return new StreamingValueAccumulator<>((value) -> {
+            try {
+                queue.put(value);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Create a new accumulator that writes each value to the writer, as the formatted text
+     * followed by a new line.  The writer is not flushed or closed by the accumulator.
+     *
+     * @param writer receives the formatted text of each accepted value.
+     * @param formatter turns a value into text.
+     * @param <T> type of the values.
+     * @return new instance.
+     */
+    @Nonnull
+    public static <T> StreamingValueAccumulator<T> toWriter(
+            @Nonnull final Writer writer,
+            @Nonnull final NonnullFunction<T, String> formatter
+    ) {
+        Objects.requireNonNull(writer, "writer");
+        Objects.requireNonNull(formatter, "formatter");
+        return new StreamingValueAccumulator<>((value) -> {
+            writer.write(formatter.apply(value));
+            writer.write('\n');
+        });
+    }
+
+    /**
+     * Get the underlying collector object, for adding arbitrary problems to the accumulator.
+     *
+     * @return the underlying problem collector object.
+     */
+    @Nonnull
+    public ProblemCollector getCollector() {
+        return this.problems;
+    }
+
+    /**
+     * Get the number of values the sink accepted so far.
+     *
+     * @return number of values sent to the sink.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Send the value to the sink if the argument is ok, otherwise add its problems.
+     *
+     * @param value value or problems
+     * @return this instance
+     */
+    @Nonnull
+    public StreamingValueAccumulator<T> with(@Nonnull final RetVal<T> value) {
+        this.problems.addAll(value.anyProblems());
+        if (value.isOk()) {
+            send(value.result());
+        }
+        return this;
+    }
+
+    /**
+     * Send the value to the sink if the argument is ok, otherwise add its problems.
+     *
+     * @param value value or problems
+     * @return this instance
+     */
+    @Nonnull
+    public StreamingValueAccumulator<T> with(@Nonnull final RetNullable<T> value) {
+        this.problems.addAll(value.anyProblems());
+        if (value.isOk()) {
+            send(value.result());
+        }
+        return this;
+    }
+
+    /**
+     * Add the given problems to the accumulator.
+     *
+     * @param problem a problem.
+     * @param problems optional additional problems.
+     * @return this instance
+     */
+    @Nonnull
+    public StreamingValueAccumulator<T> with(
+            @Nonnull final Problem problem,
+            @Nonnull final Problem... problems
+    ) {
+        this.problems.add(problem);
+        this.problems.addAll(Arrays.asList(problems));
+        return this;
+    }
+
+    /**
+     * Add the given problems to the accumulator.
+     *
+     * @param problemSet a collection of problems.
+     * @return this instance
+     */
+    @Nonnull
+    public StreamingValueAccumulator<T> with(@Nonnull final Collection<Problem> problemSet) {
+        this.problems.addAll(problemSet);
+        return this;
+    }
+
+    /**
+     * Send the value directly to the sink.
+     *
+     * @param value value to send.
+     * @return this instance
+     */
+    @Nonnull
+    public StreamingValueAccumulator<T> withValue(@Nullable final T value) {
+        send(value);
+        return this;
+    }
+
+    /**
+     * For each element in the input list, process it through the
+     * function argument to transform into the accumulator type.
+     *
+     * @param input list of input values
+     * @param func mapping function or validator
+     * @param <V> input value type
+     * @return this instance
+     */
+    @Nonnull
+    public <V> StreamingValueAccumulator<T> withEach(
+            @Nonnull final Iterable<V> input,
+            @Nonnull final NonnullReturnFunction<V, RetVal<T>> func
+    ) {
+        for (final V v : input) {
+            with(func.apply(v));
+        }
+        return this;
+    }
+
+    /**
+     * For each element in the input list, process it through the
+     * function argument to transform into the accumulator type.  If the
+     * input value has problems, then it is not processed.
+     *
+     * @param inputRes list of input values or problems
+     * @param func mapping function or validator
+     * @param <V> input value type
+     * @return this instance
+     */
+    @Nonnull
+    public <V> StreamingValueAccumulator<T> withEach(
+            @Nonnull final RetVal<? extends Iterable<V>> inputRes,
+            @Nonnull final NonnullReturnFunction<V, RetVal<T>> func
+    ) {
+        if (inputRes.hasProblems()) {
+            return with(inputRes.anyProblems());
+        }
+        return withEach(inputRes.result(), func);
+    }
+
+    /**
+     * Return the collected problems, if any.
+     *
+     * @return the problems collected.
+     */
+    @Nonnull
+    public RetVoid then() {
+        return this.problems.completeVoid();
+    }
+
+    /**
+     * Return the number of values sent to the sink, or the problems collected.
+     *
+     * @return the count of values or the problems collected.
+     */
+    @Nonnull
+    public RetVal<Long> thenCount() {
+        if (isOk()) {
+            return RetVal.ok(this.count);
+        }
+        return RetVal.fromProblems(this.problems);
+    }
+
+    @Override
+    public boolean isProblem() {
+        return this.problems.isProblem();
+    }
+
+    @Override
+    public boolean hasProblems() {
+        return this.problems.hasProblems();
+    }
+
+    @Override
+    public boolean isOk() {
+        return this.problems.isOk();
+    }
+
+    @Nonnull
+    @Override
+    public Collection<Problem> anyProblems() {
+        return this.problems.anyProblems();
+    }
+
+    @Nonnull
+    @Override
+    public Collection<Problem> validProblems() {
+        return this.problems.validProblems();
+    }
+
+    @Nonnull
+    @Override
+    public String debugProblems(@Nonnull final String joinedWith) {
+        return this.problems.debugProblems(joinedWith);
+    }
+
+    @Override
+    public void appendProblems(
+            @Nonnull final Appendable out,
+            @Nonnull final CharSequence joinedWith
+    ) throws IOException {
+        this.problems.appendProblems(out, joinedWith);
+    }
+
+    @Override
+    public void joinProblemsWith(@Nonnull final Collection<Problem> problemList) {
+        this.problems.joinProblemsWith(problemList);
+    }
+
+
+    private void send(@Nullable final T value) {
+        if (this.broken) {
+            return;
+        }
+        try {
+            this.sink.accept(value);
+            this.count++;
+        } catch (final ThreadDeath | VirtualMachineError err) {
+            // never ever process these.
+            throw err;
+        } catch (final Throwable e) {
+            this.broken = true;
+            this.problems.add(UnhandledExceptionProblem.wrap(e));
+        }
+    }
+
+
+    // The destination for the values, which may throw any exception.
+    @FunctionalInterface
+    private interface Sink<T> {
+        void accept(@Nullable T value) throws Exception;
+    }
+}
@@ -1,10 +1,12 @@
 // Released under the MIT License. 
 package net.groboclown.retval;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nonnull;
@@ -314,6 +316,43 @@ public class ValueAccumulator<T> implements ProblemContainer {
         return this;
     }
 
+    /**
+     * For each element in the input list, process it through the
+     * function argument to transform into the accumulator type.  Once
+     * {@literal maxFailures} elements have returned problems, the remaining elements are
+     * skipped, and the number of skipped elements is added to {@link #getSkippedCount()}.
+     *
+     * <p>Use a {@literal maxFailures} of 1 to stop at the first problem.
+     *
+     * @param input list of input values
+     * @param func mapping function or validator
+     * @param maxFailures number of elements with problems after which processing stops.
+     * @param <V> input value type
+     * @return this instance
+     * @throws IllegalArgumentException if {@literal maxFailures} is less than 1.
+     * @since 2.5
+     */
+    public <V> ValueAccumulator<T> withEach(
+            @Nonnull final Collection<V> input,
+            @Nonnull final NonnullReturnFunction<V, RetVal<T>> func,
+            final int maxFailures
+    ) {
+        ProblemCollector.checkMaxFailures(maxFailures);
+        final Iterator<V> iter = input.iterator();
+        int failures = 0;
+        int processed = 0;
+        while (failures < maxFailures && iter.hasNext()) {
+            final RetVal<T> res = func.apply(iter.next());
+            processed++;
+            with(res);
+            if (! res.isOk()) {
+                failures++;
+            }
+        }
+        this.problems.addSkippedCount(input.size() - processed);
+        return this;
+    }
+
     /**
      * For each element in the input list, process it through the
      * function argument to transform into the accumulator type.  If the
@@ -335,6 +374,44 @@ public class ValueAccumulator<T> implements ProblemContainer {
         return this;
     }
 
+    /**
+     * For each element in the input list, process it through the
+     * function argument to transform into the accumulator type.  If the
+     * input value has problems, then it is not processed.  Once
+     * {@literal maxFailures} elements have returned problems, the remaining elements are
+     * skipped, and the number of skipped elements is added to {@link #getSkippedCount()}.
+     *
+     * @param inputRes list of input values or problems
+     * @param func mapping function or validator
+     * @param maxFailures number of elements with problems after which processing stops.
+     * @param <V> input value type
+     * @return this instance
+     * @throws IllegalArgumentException if {@literal maxFailures} is less than 1.
+     * @since 2.5
+     */
+    public <V> ValueAccumulator<T> withEach(
+            @Nonnull final RetVal<? extends Collection<V>> inputRes,
+            @Nonnull final NonnullReturnFunction<V, RetVal<T>> func,
+            final int maxFailures
+    ) {
+        ProblemCollector.checkMaxFailures(maxFailures);
+        if (inputRes.hasProblems()) {
+            return with(inputRes.anyProblems());
+        }
+        return withEach(inputRes.result(), func, maxFailures);
+    }
+
+    /**
+     * Get the number of input elements that were skipped because a {@literal withEach} call
+     * reached its maximum number of failures.
+     *
+     * @return the number of skipped elements.
+     * @since 2.5
+     */
+    public long getSkippedCount() {
+        return this.problems.getSkippedCount();
+    }
+
     /**
      * Get all valid values collected so far, even if there are also problems.  Null values
      * may be included in the result if null values were added from a {@link RetNullable}
@@ -436,6 +513,14 @@ public class ValueAccumulator<T> implements ProblemContainer {
         return this.problems.debugProblems(joinedWith);
     }
 
+    @Override
+    public void appendProblems(
+            @Nonnull final Appendable out,
+            @Nonnull final CharSequence joinedWith
+    ) throws IOException {
+        this.problems.appendProblems(out, joinedWith);
+    }
+
     @Override
     public void joinProblemsWith(@Nonnull final Collection<Problem> problemList) {
         this.problems.joinProblemsWith(problemList);
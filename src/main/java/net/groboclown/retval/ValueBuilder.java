@@ -1,6 +1,7 @@
 // Released under the MIT License.
 package net.groboclown.retval;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Objects;
 import javax.annotation.Nonnull;
@@ -225,6 +226,14 @@ public class ValueBuilder<T> implements ProblemContainer {
         return this.problems.debugProblems(joinedWith);
     }
 
+    @Override
+    public void appendProblems(
+            @Nonnull final Appendable out,
+            @Nonnull final CharSequence joinedWith
+    ) throws IOException {
+        this.problems.appendProblems(out, joinedWith);
+    }
+
     @Override
     public void joinProblemsWith(@Nonnull final Collection<Problem> problemList) {
         this.problems.joinProblemsWith(problemList);
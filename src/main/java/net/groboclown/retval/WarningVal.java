@@ -1,6 +1,7 @@
 // Released under the MIT License.
 package net.groboclown.retval;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -106,6 +107,14 @@ public class WarningVal<T> implements ValuedProblemContainer<T> {
         return Ret.joinProblemMessages(joinedWith, this.problems);
     }
 
+    @Override
+    public void appendProblems(
+            @Nonnull final Appendable out,
+            @Nonnull final CharSequence joinedWith
+    ) throws IOException {
+        Ret.joinProblemMessages(out, joinedWith, this.problems);
+    }
+
     @Override
     public void joinProblemsWith(@Nonnull final Collection<Problem> problemList) {
         problemList.addAll(this.problems);
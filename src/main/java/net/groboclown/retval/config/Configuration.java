@@ -0,0 +1,369 @@
+// Released under the MIT License.
+package net.groboclown.retval.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.RetNullable;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.problems.FileProblem;
+
+/**
+ * Key and value pairs read from a properties file.  The contents can't change after
+ * loading.
+ *
+ * <p>The keys are held in a sorted array, so lookups are a binary search, and all the keys
+ * under a prefix, such as the {@literal "project.(name)."} keys of one project, can be
+ * found without scanning the whole configuration.  The typed lookups parse each value once,
+ * and reuse the parsed value or problem on later calls.
+ *
+ * <p>The typed lookups return their own {@link RetVal} or {@link RetNullable}.  To gather
+ * the problems from all the lookups for one object, pass them to a single
+ * {@link net.groboclown.retval.ProblemCollector}:
+ * <pre>
+ *     return Ret.collectProblems()
+ *         .with(config.requireInt("server.port"), builder::setPort)
+ *         .with(config.requireUrl("server.site"), builder::setSite)
+ *         .complete(builder);
+ * </pre>
+ *
+ * <p>Problems are {@link FileProblem}s, with the configuration source.
+ *
+ * @since 2.5
+ */
+@ThreadSafe
+public class Configuration {
+    private final String source;
+    private final String[] keys;
+    private final String[] values;
+    // Parsed value or problem for each key, added on first use.
+    private final Map<String, Object> intCache = new ConcurrentHashMap<>();
+    private final Map<String, Object> urlCache = new ConcurrentHashMap<>();
+
+    private Configuration(
+            @Nonnull final String source,
+            @Nonnull final String[] keys,
+            @Nonnull final String[] values
+    ) {
+        this.source = source;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Load the configuration from a UTF-8 properties file.
+     *
+     * @param path properties file to read.
+     * @return the configuration, or the problem reading the file.
+     */
+    @Nonnull
+    public static RetVal<Configuration> load(@Nonnull final Path path) {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader, path.toString());
+        } catch (final IOException e) {
+            return RetVal.fromProblem(FileProblem.from(path, e));
+        }
+    }
+
+    /**
+     * Read the configuration in the {@link Properties#load(Reader)} format.  The reader is
+     * not closed.
+     *
+     * @param reader source of the properties text.
+     * @param source name of the source, used in problems.
+     * @return the configuration, or the problem reading the text.
+     */
+    @Nonnull
+    public static RetVal<Configuration> read(
+            @Nonnull final Reader reader,
+            @Nonnull final String source
+    ) {
+        final Properties props = new Properties();
+        try {
+            props.load(reader);
+        } catch (final IOException e) {
+            return RetVal.fromProblem(FileProblem.from(source, e));
+        } catch (final IllegalArgumentException e) {
+            // Properties reports a malformed unicode escape this way.
+            return RetVal.fromProblem(FileProblem.from(
+                    source, "invalid properties text: " + e.getMessage()));
+        }
+        return RetVal.ok(from(props, source));
+    }
+
+    /**
+     * Create the configuration from already loaded properties.  Later changes to the
+     * properties do not change the configuration.
+     *
+     * @param props properties to copy.
+     * @param source name of the source, used in problems.
+     * @return the configuration.
+     */
+    @Nonnull
+    public static Configuration from(
+            @Nonnull final Properties props,
+            @Nonnull final String source
+    ) {
+        final String[] keys = props.stringPropertyNames().toArray(new String[0]);
+        Arrays.sort(keys);
+        final String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = props.getProperty(keys[i]);
+        }
+        return new Configuration(source, keys, values);
+    }
+
+    /**
+     * Get the name of the configuration source.
+     *
+     * @return the source name.
+     */
+    @Nonnull
+    public String getSource() {
+        return this.source;
+    }
+
+    /**
+     * Get the number of keys.
+     *
+     * @return the number of keys.
+     */
+    public int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * Get the value for the key.
+     *
+     * @param key key to find.
+     * @return the value, or {@literal null} if the key isn't present.
+     */
+    @Nullable
+    public String get(@Nonnull final String key) {
+        final int index = Arrays.binarySearch(this.keys, key);
+        return index < 0 ? null : this.values[index];
+    }
+
+    /**
+     * Get all the keys that start with the prefix.
+     *
+     * @param prefix text at the start of the keys.
+     * @return the matching keys in sorted order.
+     */
+    @Nonnull
+    public List<String> getKeysWithPrefix(@Nonnull final String prefix) {
+        final int found = Arrays.binarySearch(this.keys, prefix);
+        final int start = found < 0 ? -found - 1 : found;
+        int end = start;
+        while (end < this.keys.length && this.keys[end].startsWith(prefix)) {
+            end++;
+        }
+        return Collections.unmodifiableList(Arrays.asList(this.keys).subList(start, end));
+    }
+
+    /**
+     * Get the key's value, which may be null.
+     *
+     * @param key key to find.
+     * @return the value, or a {@literal null} value if the key isn't present.
+     */
+    @Nonnull
+    public RetNullable<String> resolve(@Nonnull final String key) {
+        return RetNullable.ok(get(key));
+    }
+
+    /**
+     * Get the key's value, which must be present and not blank.
+     *
+     * @param key key to find.
+     * @return the value, or a problem if it is missing or blank.
+     */
+    @Nonnull
+    public RetVal<String> require(@Nonnull final String key) {
+        final String value = get(key);
+        if (value == null) {
+            return RetVal.fromProblem(missing(key));
+        }
+        if (value.trim().isEmpty()) {
+            return RetVal.fromProblem(problem("`" + key + "` value is blank"));
+        }
+        return RetVal.ok(value);
+    }
+
+    /**
+     * Get the key's value as an integer, if present.
+     *
+     * @param key key to find.
+     * @return the number, a {@literal null} value if the key isn't present, or a problem if
+     *      the value is not a number.
+     */
+    @Nonnull
+    public RetNullable<Integer> resolveInt(@Nonnull final String key) {
+        final String value = get(key);
+        if (value == null) {
+            return RetNullable.ok(null);
+        }
+        final Object parsed = this.intCache.computeIfAbsent(key, (k) -> parseInt(k, value));
+        if (parsed instanceof Problem) {
+            return RetNullable.fromProblem((Problem) parsed);
+        }
+        return RetNullable.ok((Integer) parsed);
+    }
+
+    /**
+     * Get the key's value as an integer, which must be present.
+     *
+     * @param key key to find.
+     * @return the number, or a problem if the key is missing or not a number.
+     */
+    @Nonnull
+    public RetVal<Integer> requireInt(@Nonnull final String key) {
+        final String value = get(key);
+        if (value == null) {
+            return RetVal.fromProblem(missing(key));
+        }
+        final Object parsed = this.intCache.computeIfAbsent(key, (k) -> parseInt(k, value));
+        if (parsed instanceof Problem) {
+            return RetVal.fromProblem((Problem) parsed);
+        }
+        return RetVal.ok((Integer) parsed);
+    }
+
+    /**
+     * Get the key's value as a URL, if present.
+     *
+     * @param key key to find.
+     * @return the URL, a {@literal null} value if the key isn't present, or a problem if
+     *      the value is not a valid URL.
+     */
+    @Nonnull
+    public RetNullable<URL> resolveUrl(@Nonnull final String key) {
+        final String value = get(key);
+        if (value == null) {
+            return RetNullable.ok(null);
+        }
+        final Object parsed = this.urlCache.computeIfAbsent(key, (k) -> parseUrl(k, value));
+        if (parsed instanceof Problem) {
+            return RetNullable.fromProblem((Problem) parsed);
+        }
+        return RetNullable.ok((URL) parsed);
+    }
+
+    /**
+     * Get the key's value as a URL, which must be present.
+     *
+     * @param key key to find.
+     * @return the URL, or a problem if the key is missing or not a valid URL.
+     */
+    @Nonnull
+    public RetVal<URL> requireUrl(@Nonnull final String key) {
+        final String value = get(key);
+        if (value == null) {
+            return RetVal.fromProblem(missing(key));
+        }
+        final Object parsed = this.urlCache.computeIfAbsent(key, (k) -> parseUrl(k, value));
+        if (parsed instanceof Problem) {
+            return RetVal.fromProblem((Problem) parsed);
+        }
+        return RetVal.ok((URL) parsed);
+    }
+
+
+    // Keys that were added, removed, or have a different value in the next configuration.
+    @Nonnull
+    static Set<String> changedKeys(
+            @Nonnull final Configuration previous,
+            @Nonnull final Configuration next
+    ) {
+        final Set<String> ret = new HashSet<>();
+        int prevIndex = 0;
+        int nextIndex = 0;
+        while (prevIndex < previous.keys.length || nextIndex < next.keys.length) {
+            final int cmp;
+            if (prevIndex >= previous.keys.length) {
+                cmp = 1;
+            } else if (nextIndex >= next.keys.length) {
+                cmp = -1;
+            } else {
+                cmp = previous.keys[prevIndex].compareTo(next.keys[nextIndex]);
+            }
+            if (cmp < 0) {
+                ret.add(previous.keys[prevIndex++]);
+            } else if (cmp > 0) {
+                ret.add(next.keys[nextIndex++]);
+            } else {
+                if (! previous.values[prevIndex].equals(next.values[nextIndex])) {
+                    ret.add(next.keys[nextIndex]);
+                }
+                prevIndex++;
+                nextIndex++;
+            }
+        }
+        return ret;
+    }
+
+    // Reuse the parsed values of the unchanged keys, so they are not parsed again.
+    void reuseParsedValues(
+            @Nonnull final Configuration previous,
+            @Nonnull final Set<String> changed
+    ) {
+        copyUnchanged(previous.intCache, this.intCache, changed);
+        copyUnchanged(previous.urlCache, this.urlCache, changed);
+    }
+
+    private static void copyUnchanged(
+            @Nonnull final Map<String, Object> from,
+            @Nonnull final Map<String, Object> to,
+            @Nonnull final Set<String> changed
+    ) {
+        for (final Map.Entry<String, Object> entry : from.entrySet()) {
+            if (! changed.contains(entry.getKey())) {
+                to.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Nonnull
+    private Object parseInt(@Nonnull final String key, @Nonnull final String value) {
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (final NumberFormatException e) {
+            return problem("`" + key + "` is not a number (" + value + ")");
+        }
+    }
+
+    @Nonnull
+    private Object parseUrl(@Nonnull final String key, @Nonnull final String value) {
+        try {
+            return new URL(value.trim());
+        } catch (final MalformedURLException e) {
+            return problem("`" + key + "` is not a valid URL: " + e.getMessage());
+        }
+    }
+
+    @Nonnull
+    private Problem missing(@Nonnull final String key) {
+        return problem("no `" + key + "` property");
+    }
+
+    @Nonnull
+    private Problem problem(@Nonnull final String message) {
+        return FileProblem.from(this.source, message);
+    }
+}
@@ -0,0 +1,288 @@
+// Released under the MIT License.
+package net.groboclown.retval.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemContainer;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.function.NonnullFunction;
+import net.groboclown.retval.problems.FileProblem;
+
+/**
+ * A {@link Configuration} that is loaded again when its file changes, along with the
+ * problems reported by a set of validators.
+ *
+ * <p>Each validator is registered with the keys it reads.  On reload, the new file
+ * contents are compared with the last successfully loaded contents, and only the
+ * validators that read an added, removed or changed key are run again; the other
+ * validators keep their earlier problems.  Typed values parsed for the unchanged keys are
+ * reused by the new configuration.
+ *
+ * <p>The file's directory is watched with a {@link WatchService}.  Nothing runs in the
+ * background: call {@link #checkForChanges()} or {@link #awaitChanges(long, TimeUnit)}
+ * from the thread that should handle the reloads.  {@link #current()} may be called from
+ * any thread.  A validator that throws an exception stops the reload, and the exception
+ * is passed to the caller.
+ *
+ * @since 2.5
+ */
+public class ReloadableConfiguration implements Closeable {
+    private final Path file;
+    private final Path fileName;
+    private final WatchService watcher;
+    private final List<Registration> validators = new ArrayList<>();
+    private final Map<String, List<Registration>> validatorsByKey = new HashMap<>();
+    // The last successfully loaded configuration, which later reloads are compared with.
+    @Nullable
+    private Configuration loaded;
+    private List<Problem> readProblems = List.of();
+    private volatile Snapshot snapshot = new Snapshot(null, List.of());
+
+    private ReloadableConfiguration(
+            @Nonnull final Path file,
+            @Nonnull final Path fileName,
+            @Nonnull final WatchService watcher
+    ) {
+        this.file = file;
+        this.fileName = fileName;
+        this.watcher = watcher;
+    }
+
+    /**
+     * Load the properties file, and start watching it for changes.  A problem reading the
+     * file is reported by {@link #current()}, and the file is read again when it changes.
+     *
+     * @param file properties file to load.
+     * @return the reloadable configuration, or the problem watching the file's directory.
+     */
+    @Nonnull
+    public static RetVal<ReloadableConfiguration> watch(@Nonnull final Path file) {
+        final Path absolute = file.toAbsolutePath();
+        try {
+            final WatchService watcher = absolute.getFileSystem().newWatchService();
+            try {
+                Objects.requireNonNull(absolute.getParent()).register(
+                        watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            } catch (final IOException e) {
+                watcher.close();
+                throw e;
+            }
+            final ReloadableConfiguration ret = new ReloadableConfiguration(
+                    file, Objects.requireNonNull(absolute.getFileName()), watcher);
+            ret.load();
+            return RetVal.ok(ret);
+        } catch (final IOException e) {
+            return RetVal.fromProblem(FileProblem.from(file, e));
+        }
+    }
+
+    /**
+     * Add a validator, and run it on the last configuration that was read successfully,
+     * if there is one.
+     *
+     * @param keys all the configuration keys that the validator reads.
+     * @param validator returns the problems for a configuration.
+     * @return this instance.
+     */
+    @Nonnull
+    public synchronized ReloadableConfiguration addValidator(
+            @Nonnull final Collection<String> keys,
+            @Nonnull final NonnullFunction<Configuration, ProblemContainer> validator
+    ) {
+        final Registration registration = new Registration(validator);
+        this.validators.add(registration);
+        for (final String key : keys) {
+            this.validatorsByKey.computeIfAbsent(key, (k) -> new ArrayList<>()).add(registration);
+        }
+        if (this.loaded != null) {
+            registration.validate(this.loaded);
+        }
+        publish();
+        return this;
+    }
+
+    /**
+     * Get the latest configuration.
+     *
+     * @return the configuration, or the problems reading it or reported by the validators.
+     */
+    @Nonnull
+    public RetVal<Configuration> current() {
+        final Snapshot current = this.snapshot;
+        if (current.problems.isEmpty()) {
+            return RetVal.ok(Objects.requireNonNull(current.config));
+        }
+        return RetVal.fromProblem(current.problems);
+    }
+
+    /**
+     * Read the file again, whether or not it changed.
+     *
+     * @return the new configuration, or its problems.
+     */
+    @Nonnull
+    public RetVal<Configuration> reload() {
+        load();
+        return current();
+    }
+
+    /**
+     * Reload the file if a change to it was reported since the last check.  This does not
+     * wait for changes.
+     *
+     * @return true if the file was reloaded.
+     */
+    public boolean checkForChanges() {
+        final WatchKey key = this.watcher.poll();
+        return key != null && handleEvents(key);
+    }
+
+    /**
+     * Wait for a change to the file, and reload it.  Changes to other files in the same
+     * directory are skipped, and the wait continues until the timeout.
+     *
+     * @param timeout maximum time to wait.
+     * @param unit unit of the timeout.
+     * @return true if the file was reloaded, or false if no change to it was reported
+     *      before the timeout.
+     * @throws InterruptedException if the thread was interrupted while waiting.
+     */
+    public boolean awaitChanges(
+            final long timeout,
+            @Nonnull final TimeUnit unit
+    ) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining = unit.toNanos(timeout);
+        while (true) {
+            // Once the time is up, this only picks up keys that are already queued.
+            final WatchKey key = this.watcher.poll(remaining, TimeUnit.NANOSECONDS);
+            if (key == null) {
+                return false;
+            }
+            if (handleEvents(key)) {
+                return true;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Stop watching the file.  {@link #current()} and {@link #reload()} can still be used.
+     *
+     * @throws IOException if the watch service could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.watcher.close();
+    }
+
+
+    private boolean handleEvents(@Nonnull final WatchKey key) {
+        boolean changed = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || this.fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        if (changed) {
+            load();
+        }
+        return changed;
+    }
+
+    private synchronized void load() {
+        final RetVal<Configuration> res = Configuration.load(this.file);
+        if (res.hasProblems()) {
+            this.readProblems = new ArrayList<>(res.anyProblems());
+            publish();
+            return;
+        }
+        final Configuration next = res.result();
+        final Configuration previous = this.loaded;
+        final Collection<Registration> affected;
+        if (previous == null) {
+            affected = this.validators;
+        } else {
+            final Set<String> changed = Configuration.changedKeys(previous, next);
+            next.reuseParsedValues(previous, changed);
+            affected = new LinkedHashSet<>();
+            for (final String key : changed) {
+                final List<Registration> keyValidators = this.validatorsByKey.get(key);
+                if (keyValidators != null) {
+                    affected.addAll(keyValidators);
+                }
+            }
+        }
+        for (final Registration registration : affected) {
+            registration.validate(next);
+        }
+        this.loaded = next;
+        this.readProblems = List.of();
+        publish();
+    }
+
+    private void publish() {
+        if (! this.readProblems.isEmpty()) {
+            this.snapshot = new Snapshot(null, this.readProblems);
+            return;
+        }
+        final List<Problem> problems = new ArrayList<>();
+        for (final Registration registration : this.validators) {
+            problems.addAll(registration.problems);
+        }
+        this.snapshot = new Snapshot(this.loaded, problems);
+    }
+
+
+    private static final class Registration {
+        private final NonnullFunction<Configuration, ProblemContainer> validator;
+        private List<Problem> problems = List.of();
+
+        private Registration(
+                @Nonnull final NonnullFunction<Configuration, ProblemContainer> validator
+        ) {
+            this.validator = validator;
+        }
+
+        private void validate(@Nonnull final Configuration config) {
+            final ProblemContainer res = this.validator.apply(config);
+            this.problems = res.hasProblems() ? new ArrayList<>(res.anyProblems()) : List.of();
+        }
+    }
+
+    private static final class Snapshot {
+        @Nullable
+        private final Configuration config;
+        private final List<Problem> problems;
+
+        private Snapshot(
+                @Nullable final Configuration config,
+                @Nonnull final List<Problem> problems
+        ) {
+            this.config = config;
+            this.problems = problems;
+        }
+    }
+}
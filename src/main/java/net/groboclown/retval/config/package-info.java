@@ -0,0 +1,7 @@
+// Released under the MIT License.
+
+/**
+ * Read-only configuration loaded from properties files, with typed lookups that return
+ * problems for missing or invalid values.
+ */
+package net.groboclown.retval.config;
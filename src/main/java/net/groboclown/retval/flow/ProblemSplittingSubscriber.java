@@ -0,0 +1,153 @@
+// Released under the MIT License.
+package net.groboclown.retval.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+
+/**
+ * Sits between a source of values with problems and a target of just values.  It acts as the
+ * subscriber to the source, and the subscription for the target.
+ *
+ * @param <T> type of the values.
+ */
+class ProblemSplittingSubscriber<T> implements Flow.Subscriber<RetVal<T>>, Flow.Subscription {
+    private final Flow.Subscriber<? super T> target;
+    private final CompletableFuture<RetVoid> result = new CompletableFuture<>();
+    private final Object sync = new Object();
+
+    // All guarded by the sync object.
+    private final List<Problem> problems = new ArrayList<>();
+    private Flow.Subscription upstream;
+    private long pendingDemand = 0;
+    private boolean cancelled = false;
+    private boolean finished = false;
+
+    ProblemSplittingSubscriber(@Nonnull final Flow.Subscriber<? super T> target) {
+        this.target = target;
+    }
+
+    @Nonnull
+    CompletableFuture<RetVoid> getResult() {
+        return this.result;
+    }
+
+    @Override
+    public void onSubscribe(@Nonnull final Flow.Subscription subscription) {
+        final long demand;
+        synchronized (this.sync) {
+            if (this.upstream != null || this.cancelled) {
+                subscription.cancel();
+                return;
+            }
+            this.upstream = subscription;
+            demand = this.pendingDemand;
+            this.pendingDemand = 0;
+        }
+        if (demand > 0) {
+            subscription.request(demand);
+        }
+    }
+
+    @Override
+    public void onNext(@Nonnull final RetVal<T> item) {
+        final Flow.Subscription subscription;
+        synchronized (this.sync) {
+            if (! item.isOk()) {
+                // Joining counts as the observation, even if the stream was cancelled.
+                item.joinProblemsWith(this.problems);
+            }
+            if (this.cancelled) {
+                return;
+            }
+            subscription = this.upstream;
+        }
+        if (item.isOk()) {
+            this.target.onNext(item.result());
+        } else {
+            // The target did not receive anything for this request.
+            subscription.request(1);
+        }
+    }
+
+    @Override
+    public void onError(@Nonnull final Throwable throwable) {
+        synchronized (this.sync) {
+            if (this.cancelled) {
+                // The target must not receive signals after it cancels.
+                return;
+            }
+            this.problems.add(UnhandledExceptionProblem.wrap(throwable));
+        }
+        this.target.onError(throwable);
+        finish();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this.sync) {
+            if (this.cancelled) {
+                // The target must not receive signals after it cancels.
+                return;
+            }
+        }
+        this.target.onComplete();
+        finish();
+    }
+
+    @Override
+    public void request(final long n) {
+        if (n <= 0) {
+            // The Flow specification requires this to be reported as an error, and to end
+            // the subscription.
+            onError(new IllegalArgumentException("requested " + n + " items; must be positive"));
+            cancel();
+            return;
+        }
+        final Flow.Subscription subscription;
+        synchronized (this.sync) {
+            subscription = this.upstream;
+            if (subscription == null) {
+                // Saturating add; the source can't have been given more than this.
+                final long total = this.pendingDemand + n;
+                this.pendingDemand = total < 0 ? Long.MAX_VALUE : total;
+                return;
+            }
+        }
+        subscription.request(n);
+    }
+
+    @Override
+    public void cancel() {
+        final Flow.Subscription subscription;
+        synchronized (this.sync) {
+            if (this.cancelled) {
+                return;
+            }
+            this.cancelled = true;
+            subscription = this.upstream;
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        finish();
+    }
+
+    private void finish() {
+        final RetVoid problems;
+        synchronized (this.sync) {
+            if (this.finished) {
+                return;
+            }
+            this.finished = true;
+            problems = RetVoid.fromProblem(this.problems);
+        }
+        this.result.complete(problems);
+    }
+}
@@ -0,0 +1,109 @@
+// Released under the MIT License.
+package net.groboclown.retval.flow;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.function.NonnullFunction;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+
+/**
+ * Connects streams of Ret* values with {@link Flow} publishers and subscribers.
+ *
+ * <p>These allow for validating unbounded streams of records while keeping memory usage
+ * bounded.  Values are passed on as they arrive, and respect the back-pressure of the
+ * receiving subscriber; only the problems are kept.
+ *
+ * @since 2.5
+ */
+public class RetFlow {
+    private RetFlow() {
+        // Prevent instantiation.
+    }
+
+    /**
+     * Subscribe the target to the values without problems from the source, and collect the
+     * problems.  The target's requests are passed on to the source; a source item with
+     * problems is replaced with a request for one more item, so the target only sees
+     * values.
+     *
+     * <p>The returned future completes when the source completes, the source reports an
+     * error, or the target cancels its subscription.  A source error is passed to the
+     * target, and added to the returned problems as an {@link UnhandledExceptionProblem}.
+     * A target request for fewer than one item is handled the same way, as an
+     * {@link IllegalArgumentException}, and cancels the source.  After the target cancels,
+     * it receives no more signals.
+     *
+     * @param source publisher of values or problems.
+     * @param target subscriber to the values without problems.
+     * @param <T> type of the values.
+     * @return a future with the problems found in the source.
+     */
+    @Nonnull
+    public static <T> CompletableFuture<RetVoid> splitProblems(
+            @Nonnull final Flow.Publisher<RetVal<T>> source,
+            @Nonnull final Flow.Subscriber<? super T> target
+    ) {
+        final ProblemSplittingSubscriber<T> splitter = new ProblemSplittingSubscriber<>(
+                Objects.requireNonNull(target, "target"));
+        target.onSubscribe(splitter);
+        source.subscribe(splitter);
+        return splitter.getResult();
+    }
+
+    /**
+     * Create a publisher that passes each item from the source through the function.  This
+     * is the streaming equivalent of
+     * {@link net.groboclown.retval.ValueAccumulator#withEach(java.util.Collection,
+     * net.groboclown.retval.function.NonnullReturnFunction)}.
+     * An exception thrown by the function is published as an
+     * {@link UnhandledExceptionProblem}.
+     *
+     * @param source publisher of the input values.
+     * @param func function that converts each input value into a value or problems.
+     * @param <V> type of the input values.
+     * @param <T> type of the published values.
+     * @return a publisher of the function's results.
+     */
+    @Nonnull
+    public static <V, T> Flow.Publisher<RetVal<T>> validateEach(
+            @Nonnull final Flow.Publisher<V> source,
+            @Nonnull final NonnullFunction<V, RetVal<T>> func
+    ) {
+        return (subscriber) -> source.subscribe(new Flow.Subscriber<V>() {
+            @Override
+            public void onSubscribe(@Nonnull final Flow.Subscription subscription) {
+                // Each input item is published as exactly one output item, so the
+                // subscription can pass through unchanged.
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(@Nonnull final V item) {
+                RetVal<T> res;
+                try {
+                    res = func.apply(item);
+                } catch (final ThreadDeath | VirtualMachineError err) {
+                    // never ever process these.
+                    throw err;
+                } catch (final Throwable e) {
+                    res = RetVal.fromProblem(UnhandledExceptionProblem.wrap(e));
+                }
+                subscriber.onNext(res);
+            }
+
+            @Override
+            public void onError(@Nonnull final Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+}
@@ -0,0 +1,6 @@
+// Released under the MIT License.
+
+/**
+ * Adapters between Ret* values and the {@link java.util.concurrent.Flow} reactive streams.
+ */
+package net.groboclown.retval.flow;
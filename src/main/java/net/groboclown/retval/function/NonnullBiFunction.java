@@ -0,0 +1,28 @@
+// Released under the MIT License.
+package net.groboclown.retval.function;
+
+import javax.annotation.Nonnull;
+
+/**
+ * An equivalent to {@link java.util.function.BiFunction}, where the
+ * parameters and return value are non-null.
+ *
+ * @param <T> first parameter type
+ * @param <V> second parameter type
+ * @param <R> return type
+ * @since 2.5
+ */
+@FunctionalInterface
+public interface NonnullBiFunction<T, V, R> {
+    /**
+     * Run the function.  The caller must assert the
+     * non-null validity of the arguments; the receiver should safely assume the
+     * arguments are non-null.
+     *
+     * @param first first parameter value.
+     * @param second second parameter value.
+     * @return non-null value
+     */
+    @Nonnull
+    R apply(@Nonnull T first, @Nonnull V second);
+}
@@ -0,0 +1,81 @@
+// Released under the MIT License.
+package net.groboclown.retval.impl;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemStore;
+import net.groboclown.retval.problems.LocalizedProblem;
+
+/**
+ * A list of problems that only stores up to a maximum number of problems.  Additional
+ * problems are counted, but not stored, and are reported as a single summary problem at the
+ * end of the list.
+ *
+ * <p>This only supports adding problems; it can't be used with general list modifications.
+ *
+ * @since 2.5
+ */
+public class BoundedProblemList extends AbstractList<Problem> implements ProblemStore {
+    private final int maxProblems;
+    private final List<Problem> problems = new ArrayList<>();
+    private long droppedCount = 0;
+    @Nullable
+    private Problem summary;
+
+    /**
+     * Create a new, empty list.
+     *
+     * @param maxProblems maximum number of problems to store; must not be negative.
+     * @throws IllegalArgumentException if the maximum is negative.
+     */
+    public BoundedProblemList(final int maxProblems) {
+        if (maxProblems < 0) {
+            throw new IllegalArgumentException("maxProblems must not be negative");
+        }
+        this.maxProblems = maxProblems;
+    }
+
+    /**
+     * Get the number of problems that were added after the maximum was reached, and were
+     * not stored.
+     *
+     * @return the number of dropped problems.
+     */
+    @Override
+    public long droppedCount() {
+        return this.droppedCount;
+    }
+
+    @Override
+    public boolean add(@Nonnull final Problem problem) {
+        Objects.requireNonNull(problem);
+        if (this.problems.size() < this.maxProblems) {
+            return this.problems.add(problem);
+        }
+        this.droppedCount++;
+        this.summary = null;
+        return true;
+    }
+
+    @Override
+    public Problem get(final int index) {
+        if (index == this.problems.size() && this.droppedCount > 0) {
+            if (this.summary == null) {
+                this.summary = LocalizedProblem.from(
+                        String.format("and %,d more problems", this.droppedCount));
+            }
+            return this.summary;
+        }
+        return this.problems.get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.droppedCount > 0 ? this.problems.size() + 1 : this.problems.size();
+    }
+}
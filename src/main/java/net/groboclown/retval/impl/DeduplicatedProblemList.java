@@ -0,0 +1,93 @@
+// Released under the MIT License.
+package net.groboclown.retval.impl;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemStore;
+import net.groboclown.retval.function.NonnullFunction;
+
+/**
+ * A list of problems that only stores the first problem for each key, and counts how many
+ * times a problem with that key was added.  The problems keep the order in which their key
+ * was first added.
+ *
+ * <p>This only supports adding problems; it can't be used with general list modifications.
+ *
+ * @since 2.5
+ */
+public class DeduplicatedProblemList extends AbstractList<Problem> implements ProblemStore {
+    private static final int INITIAL_SIZE = 8;
+
+    private final NonnullFunction<Problem, ?> keyFunction;
+    private final Map<Object, Integer> indexByKey = new HashMap<>();
+    private final List<Problem> problems = new ArrayList<>();
+    private long[] counts = new long[INITIAL_SIZE];
+
+    /**
+     * Create a new, empty list.
+     *
+     * @param keyFunction generates the key that identifies duplicate problems.
+     */
+    public DeduplicatedProblemList(@Nonnull final NonnullFunction<Problem, ?> keyFunction) {
+        this.keyFunction = Objects.requireNonNull(keyFunction, "keyFunction");
+    }
+
+    /**
+     * Get the number of times a problem with the same key as the problem at the index
+     * was added.
+     *
+     * @param index index of the problem in this list.
+     * @return the number of times the problem was added.
+     */
+    public long getCount(final int index) {
+        Objects.checkIndex(index, this.problems.size());
+        return this.counts[index];
+    }
+
+    @Nonnull
+    @Override
+    public Map<Problem, Long> occurrenceCounts() {
+        final Map<Problem, Long> ret = new LinkedHashMap<>();
+        for (int i = 0; i < this.problems.size(); i++) {
+            ret.merge(this.problems.get(i), this.counts[i], Long::sum);
+        }
+        return Collections.unmodifiableMap(ret);
+    }
+
+    @Override
+    public boolean add(@Nonnull final Problem problem) {
+        final Object key = Objects.requireNonNull(
+                this.keyFunction.apply(Objects.requireNonNull(problem)), "key");
+        final Integer index = this.indexByKey.get(key);
+        if (index != null) {
+            this.counts[index]++;
+            return true;
+        }
+        final int size = this.problems.size();
+        if (size >= this.counts.length) {
+            this.counts = Arrays.copyOf(this.counts, size * 2);
+        }
+        this.counts[size] = 1;
+        this.indexByKey.put(key, size);
+        return this.problems.add(problem);
+    }
+
+    @Override
+    public Problem get(final int index) {
+        return this.problems.get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.problems.size();
+    }
+}
@@ -1,6 +1,7 @@
 // Released under the MIT License.
 package net.groboclown.retval.impl;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -413,6 +414,14 @@ public class MonitoredReturnProblem<T> implements RetVal<T>, RetNullable<T>, Ret
         return Ret.joinProblemMessages(joinedWith, this.problems);
     }
 
+    @Override
+    public void appendProblems(
+            @Nonnull final Appendable out,
+            @Nonnull final CharSequence joinedWith
+    ) throws IOException {
+        Ret.joinProblemMessages(out, joinedWith, this.problems);
+    }
+
     @Override
     public void joinProblemsWith(@Nonnull final Collection<Problem> problemList) {
         // This acts as closing off this value and passing the problem state to the
@@ -11,16 +11,26 @@ import net.groboclown.retval.RetNullable;
 import net.groboclown.retval.RetVal;
 import net.groboclown.retval.RetVoid;
 import net.groboclown.retval.env.ReturnTypeFactoryDetection;
+import net.groboclown.retval.function.NonnullSupplier;
 
 import static net.groboclown.retval.impl.CollectionUtil.copyNonNullValues;
 
 
 /**
  * Central handler for creating Ret* instances.
+ *
+ * <p>The global factory may be overridden on a per-thread basis, which allows for
+ * high-volume threads to use a streamlined factory while other threads in the same
+ * JVM keep the monitored checks.
  */
 public class RetGenerator {
+    private static final ThreadLocal<ReturnTypeFactory> THREAD_INSTANCE = new ThreadLocal<>();
     private static ReturnTypeFactory INSTANCE;
 
+    // Set once any thread installs an override, so that the common case of no overrides
+    // never needs to perform the thread local lookup.
+    private static volatile boolean THREAD_OVERRIDES = false;
+
     static {
         INSTANCE = ReturnTypeFactoryDetection.discoverReturnTypeFactory();
     }
@@ -40,7 +50,7 @@ public class RetGenerator {
      */
     @Nonnull
     public static <T> RetNullable<T> nullableOk(@Nullable final T value) {
-        return INSTANCE.createNullableOk(value);
+        return activeFactory().createNullableOk(value);
     }
 
 
@@ -60,7 +70,7 @@ public class RetGenerator {
             throw new IllegalArgumentException(
                     "Problem return objects must have at least 1 problem");
         }
-        return INSTANCE.createNullableFromProblems(clonedProblems);
+        return activeFactory().createNullableFromProblems(clonedProblems);
     }
 
 
@@ -74,7 +84,7 @@ public class RetGenerator {
      */
     @Nonnull
     public static <T> RetVal<T> valOk(@Nonnull final T value) {
-        return INSTANCE.createValOk(Objects.requireNonNull(value, "ok value"));
+        return activeFactory().createValOk(Objects.requireNonNull(value, "ok value"));
     }
 
 
@@ -92,7 +102,7 @@ public class RetGenerator {
             throw new IllegalArgumentException(
                     "Problem return objects must have at least 1 problem");
         }
-        return INSTANCE.createValFromProblems(clonedProblems);
+        return activeFactory().createValFromProblems(clonedProblems);
     }
 
 
@@ -103,7 +113,7 @@ public class RetGenerator {
      */
     @Nonnull
     public static RetVoid voidOk() {
-        return INSTANCE.createVoidOk();
+        return activeFactory().createVoidOk();
     }
 
 
@@ -121,7 +131,7 @@ public class RetGenerator {
         if (clonedProblems.isEmpty()) {
             return voidOk();
         }
-        return INSTANCE.createVoidFromProblems(clonedProblems);
+        return activeFactory().createVoidFromProblems(clonedProblems);
     }
 
 
@@ -140,9 +150,95 @@ public class RetGenerator {
      * Allows for replacing the active return type factory.  Primarily useful for unit tests or
      * other systems that need runtime replacements of the type.
      *
+     * <p>Threads with their own factory, set through {@link #setThreadFactory(ReturnTypeFactory)},
+     * continue to use their own factory.
+     *
      * @param factory the new factory to use; must be non-null.
      */
     public static void setFactory(@Nonnull final ReturnTypeFactory factory) {
         INSTANCE = Objects.requireNonNull(factory, "factory");
     }
+
+    /**
+     * Get the factory used by the current thread to create new Ret* instances.  This is the
+     * current thread's override factory, if one is set, otherwise the global factory.
+     *
+     * @return the factory used by the current thread.
+     * @since 2.5
+     */
+    @Nonnull
+    public static ReturnTypeFactory getActiveFactory() {
+        return activeFactory();
+    }
+
+    /**
+     * Get the factory installed for just the current thread.
+     *
+     * @return the current thread's override factory, or null if the thread uses the
+     *      global factory.
+     * @since 2.5
+     */
+    @Nullable
+    public static ReturnTypeFactory getThreadFactory() {
+        // Not a hot path, so this skips the THREAD_OVERRIDES shortcut.
+        return THREAD_INSTANCE.get();
+    }
+
+    /**
+     * Replace the return type factory for just the current thread.  Other threads continue
+     * to use their own override or the global factory.  This allows, say, a high volume
+     * worker pool to use the {@link SimpleFactory} while other threads keep using the
+     * {@link MonitoredFactory}.
+     *
+     * <p>Because the factory stays with the thread, pooled threads that are shared with
+     * other work should use {@link #withFactory(ReturnTypeFactory, NonnullSupplier)} instead.
+     *
+     * @param factory the factory for the current thread to use, or null to revert the
+     *      current thread to the global factory.
+     * @since 2.5
+     */
+    public static void setThreadFactory(@Nullable final ReturnTypeFactory factory) {
+        if (factory == null) {
+            THREAD_INSTANCE.remove();
+        } else {
+            THREAD_OVERRIDES = true;
+            THREAD_INSTANCE.set(factory);
+        }
+    }
+
+    /**
+     * Run the action with the factory installed for the current thread, then restore
+     * the thread's previous factory.  Ret* instances created by the action within the
+     * current thread will use the given factory.
+     *
+     * @param factory the factory for the current thread to use while running the action.
+     * @param action the action to run.
+     * @param <R> type returned by the action.
+     * @return the value returned by the action.
+     * @since 2.5
+     */
+    @Nonnull
+    public static <R> R withFactory(
+            @Nonnull final ReturnTypeFactory factory,
+            @Nonnull final NonnullSupplier<R> action
+    ) {
+        final ReturnTypeFactory previous = getThreadFactory();
+        setThreadFactory(Objects.requireNonNull(factory, "factory"));
+        try {
+            return action.get();
+        } finally {
+            setThreadFactory(previous);
+        }
+    }
+
+    @Nonnull
+    private static ReturnTypeFactory activeFactory() {
+        if (THREAD_OVERRIDES) {
+            final ReturnTypeFactory local = THREAD_INSTANCE.get();
+            if (local != null) {
+                return local;
+            }
+        }
+        return INSTANCE;
+    }
 }
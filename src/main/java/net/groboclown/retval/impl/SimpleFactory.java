@@ -16,6 +16,9 @@ import net.groboclown.retval.RetVoid;
 public class SimpleFactory implements ReturnTypeFactory {
     public static final SimpleFactory INSTANCE = new SimpleFactory();
 
+    // Unmonitored values are immutable, so every null value can share one instance.
+    private static final SimpleReturnValue<Object> NULL_VALUE = new SimpleReturnValue<>(null);
+
     private SimpleFactory() {
         // Utility class
     }
@@ -23,6 +26,11 @@ public class SimpleFactory implements ReturnTypeFactory {
     @Nonnull
     @Override
     public <T> RetNullable<T> createNullableOk(@Nullable final T value) {
+        if (value == null) {
+            @SuppressWarnings("unchecked")
+            final RetNullable<T> ret = (RetNullable<T>) NULL_VALUE;
+            return ret;
+        }
         return new SimpleReturnValue<>(value);
     }
 
@@ -1,6 +1,7 @@
 // Released under the MIT License.
 package net.groboclown.retval.impl;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -319,6 +320,14 @@ public class SimpleReturnProblem<T> implements RetVal<T>, RetNullable<T>, RetVoi
         return Ret.joinProblemMessages(joinedWith, this.problems);
     }
 
+    @Override
+    public void appendProblems(
+            @Nonnull final Appendable out,
+            @Nonnull final CharSequence joinedWith
+    ) throws IOException {
+        Ret.joinProblemMessages(out, joinedWith, this.problems);
+    }
+
     @Override
     public void joinProblemsWith(@Nonnull final Collection<Problem> problemList) {
         problemList.addAll(this.problems);
@@ -0,0 +1,81 @@
+// Released under the MIT License.
+package net.groboclown.retval.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.Problem;
+
+/**
+ * An unmodifiable list of problems decoded by {@link ProblemCodec}.  Only the structure is
+ * read up front; the strings are read from the buffer, and the problems created, the first
+ * time each is requested.
+ *
+ * <p>The cached strings and problems are immutable, so the list can be read from several
+ * threads; at worst, two threads each create the same element.
+ */
+final class DecodedProblemList extends AbstractList<Problem> implements RandomAccess {
+    private final ByteBuffer data;
+    private final int[] stringStarts;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final int[] recordStarts;
+    private final Problem[] problems;
+
+    DecodedProblemList(
+            @Nonnull final ByteBuffer data,
+            @Nonnull final int[] stringStarts,
+            @Nonnull final int[] stringLengths,
+            @Nonnull final int[] recordStarts
+    ) {
+        this.data = data;
+        this.stringStarts = stringStarts;
+        this.stringLengths = stringLengths;
+        this.strings = new String[stringStarts.length];
+        this.recordStarts = recordStarts;
+        this.problems = new Problem[recordStarts.length];
+    }
+
+    @Override
+    public Problem get(final int index) {
+        Objects.checkIndex(index, this.problems.length);
+        Problem ret = this.problems[index];
+        if (ret == null) {
+            final ByteBuffer record = this.data.duplicate();
+            record.position(this.recordStarts[index]);
+            ret = ProblemCodec.readRecord(record, this::getString);
+            this.problems[index] = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    public int size() {
+        return this.problems.length;
+    }
+
+    @Nonnull
+    private String getString(final int index) {
+        String ret = this.strings[index];
+        if (ret == null) {
+            final int start = this.stringStarts[index];
+            final int length = this.stringLengths[index];
+            if (this.data.hasArray()) {
+                ret = new String(
+                        this.data.array(), this.data.arrayOffset() + start, length,
+                        StandardCharsets.UTF_8);
+            } else {
+                final byte[] bytes = new byte[length];
+                final ByteBuffer view = this.data.duplicate();
+                view.position(start);
+                view.get(bytes);
+                ret = new String(bytes, StandardCharsets.UTF_8);
+            }
+            this.strings[index] = ret;
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,421 @@
+// Released under the MIT License.
+package net.groboclown.retval.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemContainer;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.SourcedProblem;
+import net.groboclown.retval.problems.CodedProblem;
+import net.groboclown.retval.problems.FileProblem;
+import net.groboclown.retval.problems.LocalizedProblem;
+import net.groboclown.retval.problems.ProblemCode;
+import net.groboclown.retval.problems.ProblemSeverity;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+
+/**
+ * A compact binary format for sending lists of problems between processes.
+ *
+ * <p>Each distinct string is stored once, in a string table at the start of the data, and
+ * problems refer to the strings by their index.  All counts, lengths and indices are
+ * stored as variable length integers, so small values take a single byte.  The format is:
+ * <pre>
+ *     version        byte (currently 2)
+ *     string count   varint
+ *     strings        varint UTF-8 byte length, then the bytes; repeated
+ *     problem count  varint
+ *     problems       kind byte, then the kind's fields as varints; repeated
+ * </pre>
+ *
+ * <p>The problem kinds are:
+ * <ul>
+ *     <li>A plain message, decoded as a {@link LocalizedProblem}.</li>
+ *     <li>A {@link SourcedProblem}, such as a {@link FileProblem}, with the message,
+ *          source, line and column.  The line and column are 0 for problems other than
+ *          a {@link FileProblem}.  It is decoded as a {@link FileProblem}.</li>
+ *     <li>An {@link UnhandledExceptionProblem}, with the message and the exception class
+ *          name.  It is decoded as a stackless problem, without stack frames.</li>
+ *     <li>A {@link CodedProblem}, with the message, the code id and the severity.  The
+ *          arguments are not stored.  If the decoding process has registered the same
+ *          code id with the same severity, then it is decoded as a {@link CodedProblem}
+ *          with the stored message; otherwise, it is decoded as a
+ *          {@link LocalizedProblem}, and the code is lost.</li>
+ * </ul>
+ *
+ * <p>Decoding does not copy the data.  The returned list reads the strings from the buffer,
+ * and creates each problem, only when it is first requested, so the buffer contents must
+ * not change while the list is in use.
+ *
+ * @since 2.5
+ */
+public class ProblemCodec {
+    static final byte FORMAT_VERSION = 2;
+    static final byte KIND_MESSAGE = 0;
+    static final byte KIND_SOURCED = 1;
+    static final byte KIND_EXCEPTION = 2;
+    static final byte KIND_CODED = 3;
+    private static final ProblemSeverity[] SEVERITIES = ProblemSeverity.values();
+
+    private ProblemCodec() {
+        // Prevent instantiation.
+    }
+
+    /**
+     * Encode the problems into a new buffer.
+     *
+     * @param problems problems to encode.
+     * @return a buffer positioned at the start of the encoded data, and limited to its end.
+     */
+    @Nonnull
+    public static ByteBuffer encode(@Nonnull final Collection<Problem> problems) {
+        final Encoding encoding = new Encoding(problems);
+        final ByteBuffer ret = ByteBuffer.allocate(encoding.size);
+        encoding.writeTo(ret);
+        ret.flip();
+        return ret;
+    }
+
+    /**
+     * Encode the container's problems into a new buffer.  This counts as an observation on
+     * the container.
+     *
+     * @param problems container of the problems to encode.
+     * @return a buffer positioned at the start of the encoded data, and limited to its end.
+     */
+    @Nonnull
+    public static ByteBuffer encode(@Nonnull final ProblemContainer problems) {
+        return encode(problems.anyProblems());
+    }
+
+    /**
+     * Encode the problems into the buffer, starting at its current position.  On return,
+     * the buffer is positioned after the encoded data.
+     *
+     * @param problems problems to encode.
+     * @param out destination buffer.
+     * @throws BufferOverflowException if the buffer does not have room for the encoded data;
+     *      in this case, nothing is written.
+     */
+    public static void encode(
+            @Nonnull final Collection<Problem> problems,
+            @Nonnull final ByteBuffer out
+    ) {
+        final Encoding encoding = new Encoding(problems);
+        if (out.remaining() < encoding.size) {
+            throw new BufferOverflowException();
+        }
+        encoding.writeTo(out);
+    }
+
+    /**
+     * Decode the problems from the buffer, starting at its current position.  On success,
+     * the buffer is positioned after the encoded data, so several encoded lists can be read
+     * one after the other.  If the data is not valid, then the buffer position does not
+     * change, and the returned value has a problem describing the error.
+     *
+     * @param in buffer containing the encoded data.
+     * @return a list of the decoded problems, or a problem with the data.
+     */
+    @Nonnull
+    public static RetVal<List<Problem>> decode(@Nonnull final ByteBuffer in) {
+        final ByteBuffer data = in.duplicate();
+        try {
+            final List<Problem> ret = read(data);
+            in.position(data.position());
+            return RetVal.ok(ret);
+        } catch (final BufferUnderflowException e) {
+            return RetVal.fromProblem(LocalizedProblem.from(
+                    "invalid encoded problems: data is truncated"));
+        } catch (final IllegalArgumentException e) {
+            return RetVal.fromProblem(LocalizedProblem.from(
+                    "invalid encoded problems: " + e.getMessage()));
+        }
+    }
+
+
+    // Reads the encoded data from the buffer's position, and leaves the buffer positioned
+    // after it.  Invalid data throws a BufferUnderflowException or an
+    // IllegalArgumentException.
+    @Nonnull
+    static DecodedProblemList read(@Nonnull final ByteBuffer data) {
+        final byte version = data.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported format version " + version);
+        }
+        final int stringCount = readCount(data);
+        final int[] stringStarts = new int[stringCount];
+        final int[] stringLengths = new int[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            final int length = readCount(data);
+            stringStarts[i] = data.position();
+            stringLengths[i] = length;
+            data.position(data.position() + length);
+        }
+        final int problemCount = readCount(data);
+        final int[] recordStarts = new int[problemCount];
+        for (int i = 0; i < problemCount; i++) {
+            recordStarts[i] = data.position();
+            checkRecord(data, stringCount);
+        }
+        return new DecodedProblemList(data.duplicate(), stringStarts, stringLengths, recordStarts);
+    }
+
+    // Reads a single problem record, looking up its strings by their index.  The record
+    // must have been checked.
+    @Nonnull
+    static Problem readRecord(
+            @Nonnull final ByteBuffer data,
+            @Nonnull final IntFunction<String> strings
+    ) {
+        final byte kind = data.get();
+        final String message = strings.apply(readVarint(data));
+        switch (kind) {
+            case KIND_SOURCED: {
+                final String source = strings.apply(readVarint(data));
+                final long line = readVarlong(data);
+                return FileProblem.at(source, line, readVarint(data), message);
+            }
+            case KIND_EXCEPTION:
+                return UnhandledExceptionProblem.fromCaptured(
+                        strings.apply(readVarint(data)), message);
+            case KIND_CODED: {
+                final ProblemCode code = ProblemCode.find(readCodeId(data));
+                final ProblemSeverity severity = SEVERITIES[readVarint(data)];
+                if (code != null && code.getSeverity() == severity) {
+                    return CodedProblem.withMessage(code, message);
+                }
+                return LocalizedProblem.from(message);
+            }
+            default:
+                // KIND_MESSAGE
+                return LocalizedProblem.from(message);
+        }
+    }
+
+    // Reads past a single problem record, checking that it is valid.
+    private static void checkRecord(@Nonnull final ByteBuffer data, final int stringCount) {
+        final byte kind = data.get();
+        if (kind < KIND_MESSAGE || kind > KIND_CODED) {
+            throw new IllegalArgumentException("unknown problem kind " + kind);
+        }
+        readRef(data, stringCount);
+        if (kind == KIND_SOURCED || kind == KIND_EXCEPTION) {
+            readRef(data, stringCount);
+        }
+        if (kind == KIND_SOURCED) {
+            readVarlong(data);
+            readVarint(data);
+        }
+        if (kind == KIND_CODED) {
+            readCodeId(data);
+            final int severity = readVarint(data);
+            if (severity >= SEVERITIES.length) {
+                throw new IllegalArgumentException("unknown severity " + severity);
+            }
+        }
+    }
+
+    // Code ids may be negative, so they are zig-zag encoded to keep small negative ids
+    // short.
+    private static int readCodeId(@Nonnull final ByteBuffer in) {
+        final long value = readVarlong(in);
+        if (value > 0xffffffffL) {
+            throw new IllegalArgumentException("invalid variable length integer");
+        }
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    private static long zigZag(final int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xffffffffL;
+    }
+
+    // A count or length can't be larger than the remaining data, as each item takes at
+    // least one byte.
+    private static int readCount(@Nonnull final ByteBuffer in) {
+        final int count = readVarint(in);
+        if (count > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static int readRef(@Nonnull final ByteBuffer in, final int stringCount) {
+        final int ref = readVarint(in);
+        if (ref >= stringCount) {
+            throw new IllegalArgumentException("string index " + ref + " out of range");
+        }
+        return ref;
+    }
+
+    static int readVarint(@Nonnull final ByteBuffer in) {
+        final long value = readVarlong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid variable length integer");
+        }
+        return (int) value;
+    }
+
+    static long readVarlong(@Nonnull final ByteBuffer in) {
+        long value = 0;
+        // A non-negative long fits in nine 7-bit groups.
+        for (int shift = 0; shift < 63; shift += 7) {
+            final byte next = in.get();
+            value |= (long) (next & 0x7f) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("invalid variable length integer");
+    }
+
+    static void writeVarint(@Nonnull final ByteBuffer out, final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7fL) != 0) {
+            out.put((byte) ((remaining & 0x7f) | 0x80));
+            remaining >>>= 7;
+        }
+        out.put((byte) remaining);
+    }
+
+    static int varintSize(final long value) {
+        return 1 + (63 - Long.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+
+    // A single problem, with its strings replaced by their string table indices.
+    static final class Record {
+        private final byte kind;
+        private final int messageRef;
+        private final int otherRef;
+        private final long line;
+        private final int column;
+        private final long codeId;
+        private final int severity;
+
+        Record(@Nonnull final Problem problem, @Nonnull final ToIntFunction<String> refs) {
+            this.messageRef = refs.applyAsInt(problem.localMessage());
+            if (problem instanceof UnhandledExceptionProblem) {
+                this.kind = KIND_EXCEPTION;
+                this.otherRef = refs.applyAsInt(
+                        ((UnhandledExceptionProblem) problem).getExceptionClassName());
+            } else if (problem instanceof SourcedProblem) {
+                this.kind = KIND_SOURCED;
+                this.otherRef = refs.applyAsInt(((SourcedProblem) problem).getSource());
+            } else if (problem instanceof CodedProblem) {
+                this.kind = KIND_CODED;
+                this.otherRef = -1;
+            } else {
+                this.kind = KIND_MESSAGE;
+                this.otherRef = -1;
+            }
+            if (problem instanceof FileProblem) {
+                this.line = ((FileProblem) problem).getLine();
+                this.column = ((FileProblem) problem).getColumn();
+            } else {
+                this.line = 0;
+                this.column = 0;
+            }
+            if (problem instanceof CodedProblem) {
+                final ProblemCode code = ((CodedProblem) problem).getCode();
+                this.codeId = zigZag(code.getId());
+                this.severity = code.getSeverity().ordinal();
+            } else {
+                this.codeId = 0;
+                this.severity = 0;
+            }
+        }
+
+        int size() {
+            int ret = 1 + varintSize(this.messageRef);
+            if (this.otherRef >= 0) {
+                ret += varintSize(this.otherRef);
+            }
+            if (this.kind == KIND_SOURCED) {
+                ret += varintSize(this.line) + varintSize(this.column);
+            }
+            if (this.kind == KIND_CODED) {
+                ret += varintSize(this.codeId) + varintSize(this.severity);
+            }
+            return ret;
+        }
+
+        void writeTo(@Nonnull final ByteBuffer out) {
+            out.put(this.kind);
+            writeVarint(out, this.messageRef);
+            if (this.otherRef >= 0) {
+                writeVarint(out, this.otherRef);
+            }
+            if (this.kind == KIND_SOURCED) {
+                writeVarint(out, this.line);
+                writeVarint(out, this.column);
+            }
+            if (this.kind == KIND_CODED) {
+                writeVarint(out, this.codeId);
+                writeVarint(out, this.severity);
+            }
+        }
+    }
+
+
+    // The string table and problem records, built before writing so that the exact
+    // size is known.
+    private static final class Encoding {
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private final Record[] records;
+        private final int size;
+
+        private Encoding(@Nonnull final Collection<Problem> problems) {
+            this.records = new Record[problems.size()];
+            int problemSize = 0;
+            int pos = 0;
+            for (final Problem problem : problems) {
+                final Record record = new Record(problem, this::ref);
+                this.records[pos++] = record;
+                problemSize += record.size();
+            }
+            int stringSize = 0;
+            for (final byte[] string : this.strings) {
+                stringSize += varintSize(string.length) + string.length;
+            }
+            this.size = 1
+                    + varintSize(this.strings.size()) + stringSize
+                    + varintSize(this.records.length) + problemSize;
+        }
+
+        private int ref(@Nonnull final String value) {
+            final Integer existing = this.stringIndex.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            final int ret = this.strings.size();
+            this.stringIndex.put(value, ret);
+            this.strings.add(value.getBytes(StandardCharsets.UTF_8));
+            return ret;
+        }
+
+        private void writeTo(@Nonnull final ByteBuffer out) {
+            out.put(FORMAT_VERSION);
+            writeVarint(out, this.strings.size());
+            for (final byte[] string : this.strings) {
+                writeVarint(out, string.length);
+                out.put(string);
+            }
+            writeVarint(out, this.records.length);
+            for (final Record record : this.records) {
+                record.writeTo(out);
+            }
+        }
+    }
+}
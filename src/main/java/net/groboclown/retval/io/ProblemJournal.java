@@ -0,0 +1,289 @@
+// Released under the MIT License.
+package net.groboclown.retval.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemStore;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.problems.FileProblem;
+
+/**
+ * An append-only list of problems that keeps the first problems in memory, and writes the
+ * rest to a memory-mapped temporary file.
+ *
+ * <p>Use this with {@link net.groboclown.retval.ProblemCollector#storedIn(ProblemStore)}
+ * when a validation may report so many problems that holding them all as objects would
+ * fill the heap.  The problems past the in-memory limit are stored in the
+ * {@link ProblemCodec} record format, and each read creates a new problem object from the
+ * stored data; these have the types described by {@link ProblemCodec}, rather than their
+ * original types.  Only the position of each stored problem is kept in memory.
+ *
+ * <p>Like the codec, the journal stores each distinct string once, in a string table
+ * shared by all the stored problems, so repeated sources and messages take only a few
+ * bytes each.  The table's index is kept in memory; once it holds
+ * {@value #DEFAULT_STRING_INDEX_LIMIT} strings, new strings are still written to the file,
+ * but are no longer shared, so that a validation with mostly distinct messages does not
+ * fill the heap with them.
+ *
+ * <p>This only supports adding problems; it can't be used with general list modifications.
+ * Closing the journal deletes the file, after which the stored problems can't be read.
+ * Instances are not thread safe.
+ *
+ * @since 2.5
+ */
+public class ProblemJournal extends AbstractList<Problem>
+        implements ProblemStore, RandomAccess, Closeable {
+    static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    static final int DEFAULT_STRING_INDEX_LIMIT = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int inMemoryLimit;
+    private final int segmentSize;
+    private final int stringIndexLimit;
+    private final List<Problem> inMemory = new ArrayList<>();
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final ToIntFunction<String> stringRefs = this::ref;
+    private final IntFunction<String> stringReader = this::readString;
+    private long fileSize = 0;
+    // Positions have the segment index in the upper 32 bits, and the offset in the
+    // segment in the lower 32 bits.
+    private long[] positions = new long[16];
+    private int storedCount = 0;
+    private long[] stringPositions = new long[16];
+    private int stringCount = 0;
+    private boolean closed = false;
+
+    ProblemJournal(
+            @Nonnull final FileChannel channel,
+            final int inMemoryLimit,
+            final int segmentSize,
+            final int stringIndexLimit
+    ) {
+        this.channel = channel;
+        this.inMemoryLimit = inMemoryLimit;
+        this.segmentSize = segmentSize;
+        this.stringIndexLimit = stringIndexLimit;
+    }
+
+    /**
+     * Create a new journal, with its file in the directory.
+     *
+     * @param directory directory for the temporary file.
+     * @param inMemoryLimit number of problems kept in memory before problems are written
+     *      to the file.
+     * @return the new journal, or a problem if the file could not be created.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    @Nonnull
+    public static RetVal<ProblemJournal> create(
+            @Nonnull final Path directory,
+            final int inMemoryLimit
+    ) {
+        if (inMemoryLimit < 0) {
+            throw new IllegalArgumentException("inMemoryLimit must not be negative");
+        }
+        try {
+            final Path file = Files.createTempFile(directory, "problems-", ".journal");
+            return RetVal.ok(new ProblemJournal(
+                    FileChannel.open(
+                            file,
+                            StandardOpenOption.READ, StandardOpenOption.WRITE,
+                            StandardOpenOption.DELETE_ON_CLOSE),
+                    inMemoryLimit, DEFAULT_SEGMENT_SIZE, DEFAULT_STRING_INDEX_LIMIT));
+        } catch (final IOException e) {
+            return RetVal.fromProblem(FileProblem.from(directory, e));
+        }
+    }
+
+    /**
+     * Get the number of problems written to the file.
+     *
+     * @return the number of problems not kept in memory.
+     */
+    public int getStoredCount() {
+        return this.storedCount;
+    }
+
+    /**
+     * Get a read-only view of the problems currently in this journal.  Problems added
+     * later are not part of the view.  This does not read the stored problems.
+     *
+     * @return a view of the current problems.
+     */
+    @Nonnull
+    @Override
+    public List<Problem> snapshot() {
+        final int size = size();
+        return new AbstractList<>() {
+            @Override
+            public Problem get(final int index) {
+                Objects.checkIndex(index, size);
+                return ProblemJournal.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Add the problem to the end of the journal.
+     *
+     * @param problem problem to add.
+     * @return true
+     * @throws UncheckedIOException if the file could not be extended.
+     * @throws IllegalStateException if the journal is closed.
+     */
+    @Override
+    public boolean add(@Nonnull final Problem problem) {
+        Objects.requireNonNull(problem);
+        checkOpen();
+        if (this.inMemory.size() < this.inMemoryLimit) {
+            return this.inMemory.add(problem);
+        }
+        // Any new strings are written before the record.
+        final ProblemCodec.Record record = new ProblemCodec.Record(problem, this.stringRefs);
+        final MappedByteBuffer segment = reserve(record.size());
+        if (this.storedCount >= this.positions.length) {
+            this.positions = Arrays.copyOf(this.positions, this.storedCount * 2);
+        }
+        this.positions[this.storedCount++] = position(segment);
+        record.writeTo(segment);
+        return true;
+    }
+
+    /**
+     * Get the problem at the index.  Problems stored in the file are read again on each
+     * call.
+     *
+     * @param index index of the problem.
+     * @return the problem.
+     * @throws IllegalStateException if the problem is stored in the file, and the journal
+     *      is closed.
+     */
+    @Override
+    public Problem get(final int index) {
+        Objects.checkIndex(index, size());
+        final int memorySize = this.inMemory.size();
+        if (index < memorySize) {
+            return this.inMemory.get(index);
+        }
+        checkOpen();
+        return ProblemCodec.readRecord(
+                read(this.positions[index - memorySize]), this.stringReader);
+    }
+
+    @Override
+    public int size() {
+        return this.inMemory.size() + this.storedCount;
+    }
+
+    /**
+     * Close the journal, and delete its file.  The problems kept in memory can still be
+     * read.
+     *
+     * @throws IOException if the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        // Let the mapped memory be released without waiting for this journal to be
+        // collected.
+        this.segments.clear();
+        this.stringIndex.clear();
+        this.channel.close();
+    }
+
+
+    // Get the table index of the string, writing it to the file if it isn't indexed.
+    private int ref(@Nonnull final String value) {
+        final Integer existing = this.stringIndex.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final MappedByteBuffer segment =
+                reserve(ProblemCodec.varintSize(bytes.length) + bytes.length);
+        if (this.stringCount >= this.stringPositions.length) {
+            this.stringPositions = Arrays.copyOf(this.stringPositions, this.stringCount * 2);
+        }
+        final int ret = this.stringCount++;
+        this.stringPositions[ret] = position(segment);
+        ProblemCodec.writeVarint(segment, bytes.length);
+        segment.put(bytes);
+        if (this.stringIndex.size() < this.stringIndexLimit) {
+            this.stringIndex.put(value, ret);
+        }
+        return ret;
+    }
+
+    @Nonnull
+    private String readString(final int ref) {
+        final ByteBuffer data = read(this.stringPositions[ref]);
+        final byte[] bytes = new byte[ProblemCodec.readVarint(data)];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Nonnull
+    private ByteBuffer read(final long position) {
+        final ByteBuffer ret = this.segments.get((int) (position >>> 32)).duplicate();
+        ret.position((int) position);
+        return ret;
+    }
+
+    private long position(@Nonnull final MappedByteBuffer segment) {
+        return ((long) (this.segments.size() - 1) << 32) | segment.position();
+    }
+
+    // Get the last segment, or a new segment if the last one does not have room for the
+    // data.
+    @Nonnull
+    private MappedByteBuffer reserve(final int size) {
+        if (! this.segments.isEmpty()) {
+            final MappedByteBuffer last = this.segments.get(this.segments.size() - 1);
+            if (last.remaining() >= size) {
+                return last;
+            }
+        }
+        final int mapSize = Math.max(this.segmentSize, size);
+        try {
+            final MappedByteBuffer ret =
+                    this.channel.map(FileChannel.MapMode.READ_WRITE, this.fileSize, mapSize);
+            this.fileSize += mapSize;
+            this.segments.add(ret);
+            return ret;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("journal is closed");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+// Released under the MIT License.
+package net.groboclown.retval.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemContainer;
+import net.groboclown.retval.SourcedProblem;
+import net.groboclown.retval.problems.CodedProblem;
+import net.groboclown.retval.problems.FileProblem;
+import net.groboclown.retval.problems.ProblemCode;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+
+/**
+ * Writes problems as JSON, directly to the output, without building an intermediate
+ * object tree.
+ *
+ * <p>Each problem is written as a JSON object with a {@literal message} field.  Additional
+ * fields are written when the problem type provides them:
+ * <ul>
+ *     <li>{@literal source} for a {@link SourcedProblem}.</li>
+ *     <li>{@literal line} and {@literal column} for a {@link FileProblem}, when they are
+ *          known.</li>
+ *     <li>{@literal exception}, the exception class name, for an
+ *          {@link UnhandledExceptionProblem}.</li>
+ *     <li>{@literal code} and {@literal severity} for a {@link CodedProblem}.</li>
+ * </ul>
+ *
+ * <p>For example:
+ * <pre>
+ *     {"message":"Could not read file","source":"app.properties"}
+ * </pre>
+ *
+ * <p>Reading the problems from a container counts as an observation on the container.
+ *
+ * @since 2.5
+ */
+public class ProblemJsonEncoder {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ProblemJsonEncoder() {
+        // Prevent instantiation.
+    }
+
+    /**
+     * Write the container's problems as a single JSON array.  A container without problems
+     * writes an empty array.
+     *
+     * @param problems container of the problems to write.
+     * @param out destination of the JSON text.
+     * @throws IOException if the output could not be written.
+     */
+    public static void writeArray(
+            @Nonnull final ProblemContainer problems,
+            @Nonnull final Appendable out
+    ) throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (final Problem problem : problems.anyProblems()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            writeProblem(problem, out);
+        }
+        out.append(']');
+    }
+
+    /**
+     * Write the container's problems as a single JSON array, encoded in UTF-8.  The stream
+     * is flushed but not closed.  This has its own name, as a {@link java.io.PrintStream}
+     * is both an {@link OutputStream} and an {@link Appendable}.
+     *
+     * @param problems container of the problems to write.
+     * @param out destination of the JSON text.
+     * @throws IOException if the output could not be written.
+     */
+    public static void writeArrayUtf8(
+            @Nonnull final ProblemContainer problems,
+            @Nonnull final OutputStream out
+    ) throws IOException {
+        final Writer writer = utf8Writer(out);
+        writeArray(problems, writer);
+        writer.flush();
+    }
+
+    /**
+     * Write the container's problems as newline-delimited JSON, with one JSON object per
+     * line.  A container without problems writes nothing.
+     *
+     * @param problems container of the problems to write.
+     * @param out destination of the JSON text.
+     * @throws IOException if the output could not be written.
+     */
+    public static void writeLines(
+            @Nonnull final ProblemContainer problems,
+            @Nonnull final Appendable out
+    ) throws IOException {
+        for (final Problem problem : problems.anyProblems()) {
+            writeProblem(problem, out);
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Write the container's problems as newline-delimited JSON, encoded in UTF-8.  The
+     * stream is flushed but not closed.  This has its own name, as a
+     * {@link java.io.PrintStream} is both an {@link OutputStream} and an {@link Appendable}.
+     *
+     * @param problems container of the problems to write.
+     * @param out destination of the JSON text.
+     * @throws IOException if the output could not be written.
+     */
+    public static void writeLinesUtf8(
+            @Nonnull final ProblemContainer problems,
+            @Nonnull final OutputStream out
+    ) throws IOException {
+        final Writer writer = utf8Writer(out);
+        writeLines(problems, writer);
+        writer.flush();
+    }
+
+    /**
+     * Write a single problem as a JSON object.
+     *
+     * @param problem problem to write.
+     * @param out destination of the JSON text.
+     * @throws IOException if the output could not be written.
+     */
+    public static void writeProblem(
+            @Nonnull final Problem problem,
+            @Nonnull final Appendable out
+    ) throws IOException {
+        out.append("{\"message\":");
+        writeString(problem.localMessage(), out);
+        if (problem instanceof SourcedProblem) {
+            out.append(",\"source\":");
+            writeString(((SourcedProblem) problem).getSource(), out);
+        }
+        if (problem instanceof FileProblem) {
+            final FileProblem file = (FileProblem) problem;
+            if (file.getLine() > 0) {
+                out.append(",\"line\":").append(Long.toString(file.getLine()));
+            }
+            if (file.getColumn() > 0) {
+                out.append(",\"column\":").append(Integer.toString(file.getColumn()));
+            }
+        }
+        if (problem instanceof UnhandledExceptionProblem) {
+            out.append(",\"exception\":");
+            writeString(((UnhandledExceptionProblem) problem).getExceptionClassName(), out);
+        }
+        if (problem instanceof CodedProblem) {
+            final ProblemCode code = ((CodedProblem) problem).getCode();
+            out.append(",\"code\":").append(Integer.toString(code.getId()));
+            out.append(",\"severity\":");
+            writeString(code.getSeverity().name(), out);
+        }
+        out.append('}');
+    }
+
+    /**
+     * Write the text as a quoted JSON string.
+     *
+     * @param text text to write.
+     * @param out destination of the JSON text.
+     * @throws IOException if the output could not be written.
+     */
+    public static void writeString(
+            @Nonnull final CharSequence text,
+            @Nonnull final Appendable out
+    ) throws IOException {
+        out.append('"');
+        final int length = text.length();
+        // Copy the runs of characters that don't need escaping in a single call.
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.append(text, start, i);
+            start = i + 1;
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\b':
+                    out.append("\\b");
+                    break;
+                case '\f':
+                    out.append("\\f");
+                    break;
+                default:
+                    out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+                    break;
+            }
+        }
+        out.append(text, start, length);
+        out.append('"');
+    }
+
+
+    @Nonnull
+    private static Writer utf8Writer(@Nonnull final OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,6 @@
+// Released under the MIT License.
+
+/**
+ * Writers that turn problems into text formats for logs and service responses.
+ */
+package net.groboclown.retval.io;
@@ -0,0 +1,327 @@
+// Released under the MIT License.
+package net.groboclown.retval.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemContainer;
+import net.groboclown.retval.Ret;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.function.NonnullFunction;
+import net.groboclown.retval.problems.ColumnProblem;
+import net.groboclown.retval.problems.FileProblem;
+
+/**
+ * Validates a UTF-8 text file one line at a time, without reading the whole file into
+ * memory.  The file is memory mapped and decoded in chunks that end on a line boundary.
+ * Each chunk is mapped separately, and extends past the chunk size to the end of its last
+ * line, so a single line longer than 2 GB can't be validated; such a file is reported as a
+ * problem.
+ *
+ * <p>The line validator is called with each line of the file, without the line terminator,
+ * and returns the problems for that line.  Each problem is reported as a
+ * {@link FileProblem} at the file and line number; a {@link ColumnProblem} also sets the
+ * column.  Lines end with a line feed, a carriage return, or a carriage return followed
+ * by a line feed, as with {@link java.io.BufferedReader#readLine()}.
+ *
+ * <p>Invalid UTF-8 data stops the validation with a problem at the line containing it.
+ * The lines before it are still validated.
+ *
+ * @since 2.5
+ */
+public class LineValidator {
+    private static final int SCAN_SIZE = 4096;
+
+    private LineValidator() {
+        // Prevent instantiation.
+    }
+
+    /**
+     * Validate each line of the file in order, on the calling thread.  The file is read in
+     * chunks of {@link RetFiles#DEFAULT_CHUNK_SIZE} bytes.
+     *
+     * @param path file to validate.
+     * @param validator returns the problems for a single line.
+     * @return all the problems found in the file, or the problem reading it.
+     */
+    @Nonnull
+    public static RetVoid validate(
+            @Nonnull final Path path,
+            @Nonnull final NonnullFunction<String, ProblemContainer> validator
+    ) {
+        return validate(path, RetFiles.DEFAULT_CHUNK_SIZE, validator);
+    }
+
+    // Visible for testing the chunk limits without needing huge files.
+    @Nonnull
+    static RetVoid validate(
+            @Nonnull final Path path,
+            final int chunkSize,
+            @Nonnull final NonnullFunction<String, ProblemContainer> validator
+    ) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final RetVal<List<long[]>> ranges = splitChunks(channel, path, chunkSize);
+            if (! ranges.isOk()) {
+                return ranges.forwardVoidProblems();
+            }
+            final List<Chunk> chunks = new ArrayList<>();
+            for (final long[] range : ranges.result()) {
+                final Chunk chunk = validateChunk(channel, range[0], range[1], validator);
+                chunks.add(chunk);
+                if (chunk.invalid) {
+                    break;
+                }
+            }
+            return joinChunks(path, chunks);
+        } catch (final IOException e) {
+            return RetVoid.fromProblem(FileProblem.from(path, e));
+        }
+    }
+
+    /**
+     * Validate the file in chunks of {@link RetFiles#DEFAULT_CHUNK_SIZE} bytes, with each
+     * chunk run as a separate task by the executor.
+     *
+     * @param path file to validate.
+     * @param executor runs the chunk validation tasks.
+     * @param validator returns the problems for a single line.
+     * @return all the problems found in the file, or the problem reading it.
+     * @see #validateParallel(Path, int, ExecutorService, NonnullFunction)
+     */
+    @Nonnull
+    public static RetVoid validateParallel(
+            @Nonnull final Path path,
+            @Nonnull final ExecutorService executor,
+            @Nonnull final NonnullFunction<String, ProblemContainer> validator
+    ) {
+        return validateParallel(path, RetFiles.DEFAULT_CHUNK_SIZE, executor, validator);
+    }
+
+    /**
+     * Validate the file in chunks, with each chunk run as a separate task by the executor.
+     *
+     * <p>The validator is called from several threads at once, and the lines are not
+     * validated in order; the returned problems are still in the same order as
+     * {@link #validate(Path, NonnullFunction)} would return them.  If the validator throws
+     * an exception, then the exceptions are returned as
+     * {@link net.groboclown.retval.problems.UnhandledExceptionProblem}s, one for each chunk
+     * where it happened, without the line problems.
+     *
+     * @param path file to validate.
+     * @param chunkSize approximate number of bytes in each chunk.
+     * @param executor runs the chunk validation tasks.
+     * @param validator returns the problems for a single line.
+     * @return all the problems found in the file, or the problem reading it.
+     * @throws IllegalArgumentException if the chunk size is less than 1.
+     */
+    @Nonnull
+    public static RetVoid validateParallel(
+            @Nonnull final Path path,
+            final int chunkSize,
+            @Nonnull final ExecutorService executor,
+            @Nonnull final NonnullFunction<String, ProblemContainer> validator
+    ) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final RetVal<List<long[]>> ranges = splitChunks(channel, path, chunkSize);
+            if (! ranges.isOk()) {
+                return ranges.forwardVoidProblems();
+            }
+            final List<Callable<RetVal<Chunk>>> tasks = new ArrayList<>();
+            for (final long[] range : ranges.result()) {
+                tasks.add(() -> {
+                    try {
+                        return RetVal.ok(validateChunk(channel, range[0], range[1], validator));
+                    } catch (final IOException e) {
+                        // Reported the same way as validate() reports it.
+                        return RetVal.fromProblem(FileProblem.from(path, e));
+                    }
+                });
+            }
+            return Ret.forkAll(tasks, executor).produceVoid(
+                    (chunks) -> joinChunks(path, chunks));
+        } catch (final IOException e) {
+            return RetVoid.fromProblem(FileProblem.from(path, e));
+        }
+    }
+
+
+    private static void addLineProblems(
+            @Nonnull final List<LineProblem> problems,
+            final long lineNumber,
+            @Nonnull final ProblemContainer lineProblems
+    ) {
+        // An ok value only counts as checked with an explicit check.
+        if (! lineProblems.hasProblems()) {
+            return;
+        }
+        for (final Problem problem : lineProblems.anyProblems()) {
+            final int column = problem instanceof ColumnProblem
+                    ? ((ColumnProblem) problem).getColumn()
+                    : 0;
+            problems.add(new LineProblem(lineNumber, column, problem.localMessage()));
+        }
+    }
+
+    // Start and end positions of each chunk, or a problem if a chunk is too large to map.
+    @Nonnull
+    private static RetVal<List<long[]>> splitChunks(
+            @Nonnull final FileChannel channel,
+            @Nonnull final Path path,
+            final int chunkSize
+    ) throws IOException {
+        final List<long[]> ret = new ArrayList<>();
+        final long size = channel.size();
+        long start = 0;
+        while (start < size) {
+            final long end = start + chunkSize >= size
+                    ? size
+                    : nextLineStart(channel, start + chunkSize, size);
+            if (end - start > Integer.MAX_VALUE) {
+                return RetVal.fromProblem(FileProblem.from(path,
+                        "a line after byte " + start + " is too long to validate"));
+            }
+            ret.add(new long[] { start, end });
+            start = end;
+        }
+        return RetVal.ok(ret);
+    }
+
+    // Find the position just after the next line terminator at or after the position.  A
+    // carriage return followed by a line feed is one terminator, and is never split.
+    private static long nextLineStart(
+            @Nonnull final FileChannel channel,
+            final long position,
+            final long size
+    ) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+        long pos = position;
+        boolean afterCr = false;
+        while (pos < size) {
+            buffer.clear();
+            channel.read(buffer, pos);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                final byte b = buffer.get();
+                if (afterCr) {
+                    return b == '\n' ? pos + 1 : pos;
+                }
+                pos++;
+                if (b == '\n') {
+                    return pos;
+                }
+                afterCr = b == '\r';
+            }
+        }
+        return size;
+    }
+
+    // Line numbers in the returned problems are relative to the start of the chunk.  The
+    // chunks can be validated in parallel, so the chunk's first line isn't known yet.
+    @Nonnull
+    private static Chunk validateChunk(
+            @Nonnull final FileChannel channel,
+            final long start,
+            final long end,
+            @Nonnull final NonnullFunction<String, ProblemContainer> validator
+    ) throws IOException {
+        final ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        // UTF-8 never decodes to more chars than bytes.
+        final CharBuffer text = CharBuffer.allocate(bytes.remaining());
+        final boolean invalid = decoder.decode(bytes, text, true).isError();
+        text.flip();
+
+        final List<LineProblem> problems = new ArrayList<>();
+        long lineCount = 0;
+        int lineStart = 0;
+        final int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            final char c = text.get(pos++);
+            if (c == '\n' || c == '\r') {
+                addLineProblems(
+                        problems, ++lineCount,
+                        validator.apply(text.subSequence(lineStart, pos - 1).toString()));
+                if (c == '\r' && pos < length && text.get(pos) == '\n') {
+                    pos++;
+                }
+                lineStart = pos;
+            }
+        }
+        if (invalid) {
+            problems.add(new LineProblem(lineCount + 1, 0, "invalid UTF-8 data"));
+        } else if (lineStart < length) {
+            addLineProblems(
+                    problems, ++lineCount,
+                    validator.apply(text.subSequence(lineStart, length).toString()));
+        }
+        return new Chunk(problems, lineCount, invalid);
+    }
+
+    @Nonnull
+    private static RetVoid joinChunks(
+            @Nonnull final Path path,
+            @Nonnull final List<Chunk> chunks
+    ) {
+        final List<Problem> problems = new ArrayList<>();
+        long lineOffset = 0;
+        for (final Chunk chunk : chunks) {
+            for (final LineProblem problem : chunk.problems) {
+                problems.add(FileProblem.at(
+                        path, lineOffset + problem.line, problem.column, problem.message));
+            }
+            if (chunk.invalid) {
+                // Validation stops at the invalid data.
+                break;
+            }
+            lineOffset += chunk.lineCount;
+        }
+        return RetVoid.fromProblem(problems);
+    }
+
+
+    // A problem found in a chunk, before the chunk's first line is known.
+    private static final class LineProblem {
+        private final long line;
+        private final int column;
+        private final String message;
+
+        private LineProblem(final long line, final int column, @Nonnull final String message) {
+            this.line = line;
+            this.column = column;
+            this.message = message;
+        }
+    }
+
+
+    private static final class Chunk {
+        private final List<LineProblem> problems;
+        private final long lineCount;
+        private final boolean invalid;
+
+        private Chunk(
+                @Nonnull final List<LineProblem> problems,
+                final long lineCount,
+                final boolean invalid
+        ) {
+            this.problems = problems;
+            this.lineCount = lineCount;
+            this.invalid = invalid;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+// Released under the MIT License.
+package net.groboclown.retval.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.annotation.Nonnull;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.function.NonnullConsumer;
+import net.groboclown.retval.problems.FileProblem;
+
+/**
+ * Reads files through memory mapping, so the file contents are not copied through
+ * intermediate buffers.  Problems opening or reading the file are returned as
+ * {@link FileProblem} values, with the file path as the source.
+ *
+ * <p>Mapped buffers remain valid after the file is closed, and their memory is released
+ * when the buffer is garbage collected.  The buffers are read-only, but their contents may
+ * change if the file is modified while they are in use.
+ *
+ * @since 2.5
+ */
+public class RetFiles {
+    /**
+     * The chunk size used by {@link #forEachChunk(Path, NonnullConsumer)}.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private RetFiles() {
+        // Prevent instantiation.
+    }
+
+    /**
+     * Map the whole file into memory.
+     *
+     * @param path file to map.
+     * @return a read-only buffer over the file contents, or the problem reading the file.
+     */
+    @Nonnull
+    public static RetVal<ByteBuffer> mapFile(@Nonnull final Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return RetVal.fromProblem(FileProblem.from(
+                        path, "file is too large to map; read it in chunks"));
+            }
+            return RetVal.ok(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (final IOException e) {
+            return RetVal.fromProblem(FileProblem.from(path, e));
+        }
+    }
+
+    /**
+     * Read the whole file as UTF-8 text.  The text is decoded directly from the mapped file
+     * into the returned buffer.
+     *
+     * @param path file to read.
+     * @return the file contents, or the problem reading the file, including invalid UTF-8
+     *      data.
+     */
+    @Nonnull
+    public static RetVal<CharBuffer> readUtf8(@Nonnull final Path path) {
+        return mapFile(path).then((contents) -> {
+            try {
+                return RetVal.ok(StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT)
+                        .decode(contents));
+            } catch (final CharacterCodingException e) {
+                return RetVal.fromProblem(FileProblem.from(
+                        path, "invalid UTF-8 data at byte " + contents.position()));
+            }
+        });
+    }
+
+    /**
+     * Pass the file contents to the consumer in order, one chunk of
+     * {@link #DEFAULT_CHUNK_SIZE} bytes at a time.
+     *
+     * @param path file to read.
+     * @param consumer receives each chunk.
+     * @return no problems, or the problem reading the file.
+     * @see #forEachChunk(Path, int, NonnullConsumer)
+     */
+    @Nonnull
+    public static RetVoid forEachChunk(
+            @Nonnull final Path path,
+            @Nonnull final NonnullConsumer<ByteBuffer> consumer
+    ) {
+        return forEachChunk(path, DEFAULT_CHUNK_SIZE, consumer);
+    }
+
+    /**
+     * Pass the file contents to the consumer in order, one chunk at a time.  Each chunk is
+     * a read-only buffer mapped over the next part of the file; all chunks except the last
+     * have the requested size.  Use this for files that are too large to map at once.
+     *
+     * <p>Chunks split the file at arbitrary byte positions, which may be inside a line or a
+     * multi-byte character.
+     *
+     * @param path file to read.
+     * @param chunkSize maximum number of bytes in each chunk.
+     * @param consumer receives each chunk.
+     * @return no problems, or the problem reading the file.
+     * @throws IllegalArgumentException if the chunk size is less than 1.
+     */
+    @Nonnull
+    public static RetVoid forEachChunk(
+            @Nonnull final Path path,
+            final int chunkSize,
+            @Nonnull final NonnullConsumer<ByteBuffer> consumer
+    ) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            for (long position = 0; position < size; position += chunkSize) {
+                consumer.accept(channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        position, Math.min(chunkSize, size - position)));
+            }
+            return RetVoid.ok();
+        } catch (final IOException e) {
+            return RetVoid.fromProblem(FileProblem.from(path, e));
+        }
+    }
+}
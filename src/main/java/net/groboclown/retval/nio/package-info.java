@@ -0,0 +1,7 @@
+// Released under the MIT License.
+
+/**
+ * File reading with {@link java.nio.channels.FileChannel} and memory mapping, which
+ * reports I/O errors as {@link net.groboclown.retval.problems.FileProblem} values.
+ */
+package net.groboclown.retval.nio;
@@ -0,0 +1,117 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Problem identified by a registered {@link ProblemCode}.  The message is made from the
+ * code's template and the problem's arguments, and is only formatted when it is first
+ * requested.  If the template does not match the arguments, then the message is the
+ * template followed by the arguments.
+ *
+ * <p>Two coded problems are equal if they have the same code and equal arguments, so
+ * grouping or de-duplicating these problems compares the code's id and the arguments
+ * rather than message text.  To group all the problems with the same code regardless of
+ * their arguments, use {@link #getCode()} as the key.
+ *
+ * @since 2.5
+ */
+@Immutable
+public class CodedProblem extends LazyMessageProblem {
+    private final ProblemCode code;
+    private final Object[] args;
+    private final boolean preformatted;
+
+    /**
+     * Create a problem for the code.
+     *
+     * @param code registered problem code.
+     * @param args arguments referenced by the code's template.
+     * @return the problem value.
+     */
+    @Nonnull
+    public static CodedProblem of(@Nonnull final ProblemCode code, @Nonnull final Object... args) {
+        return new CodedProblem(
+                Objects.requireNonNull(code, "code"),
+                Objects.requireNonNull(args, "args"),
+                null);
+    }
+
+    /**
+     * Create a problem for the code with an already formatted message, such as a problem
+     * decoded from data that does not include the original arguments.  Two of these
+     * problems are equal if they have the same code and message.
+     *
+     * @param code registered problem code.
+     * @param message formatted message text.
+     * @return the problem value.
+     */
+    @Nonnull
+    public static CodedProblem withMessage(
+            @Nonnull final ProblemCode code,
+            @Nonnull final String message
+    ) {
+        return new CodedProblem(
+                Objects.requireNonNull(code, "code"),
+                new Object[] { message },
+                Objects.requireNonNull(message, "message"));
+    }
+
+    private CodedProblem(
+            @Nonnull final ProblemCode code,
+            @Nonnull final Object[] args,
+            @Nullable final String formatted
+    ) {
+        super(formatted);
+        this.code = code;
+        this.args = args;
+        this.preformatted = formatted != null;
+    }
+
+    /**
+     * Get the code for this problem.
+     *
+     * @return the problem code.
+     */
+    @Nonnull
+    public ProblemCode getCode() {
+        return this.code;
+    }
+
+    @Nonnull
+    @Override
+    String createLocalMessage() {
+        return format(this.code.getTemplate(), this.args);
+    }
+
+    @Override
+    public String toString() {
+        return localMessage();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.code.getId() + Arrays.hashCode(this.args);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (other == null) {
+            return false;
+        }
+        if (other == this) {
+            return true;
+        }
+        if (CodedProblem.class.equals(other.getClass())) {
+            final CodedProblem that = (CodedProblem) other;
+            return this.code == that.code
+                    && this.preformatted == that.preformatted
+                    && Arrays.equals(this.args, that.args);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import net.groboclown.retval.Problem;
+
+/**
+ * Problem found at a column of a single line of text.  Line validators return this when
+ * they know where in the line the problem is, but not which file or line they are reading;
+ * {@link net.groboclown.retval.nio.LineValidator} turns it into a {@link FileProblem} with
+ * the full position.
+ *
+ * @since 2.5
+ */
+@Immutable
+public class ColumnProblem implements Problem {
+    private final int column;
+    private final String localMessage;
+
+    /**
+     * Create a problem at the column.
+     *
+     * @param column column in the line, starting at 1.
+     * @param localMessage message text for the problem.
+     * @return the problem value.
+     * @throws IllegalArgumentException if the column is less than 1.
+     */
+    @Nonnull
+    public static ColumnProblem from(final int column, @Nonnull final String localMessage) {
+        if (column < 1) {
+            throw new IllegalArgumentException("column must be at least 1");
+        }
+        return new ColumnProblem(column, Objects.requireNonNull(localMessage));
+    }
+
+    private ColumnProblem(final int column, @Nonnull final String localMessage) {
+        this.column = column;
+        this.localMessage = localMessage;
+    }
+
+    /**
+     * Get the column in the line where the problem was found.
+     *
+     * @return the column, starting at 1.
+     */
+    public int getColumn() {
+        return this.column;
+    }
+
+    @Nonnull
+    @Override
+    public String localMessage() {
+        return this.localMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "column " + this.column + ": " + this.localMessage;
+    }
+}
@@ -3,17 +3,37 @@ package net.groboclown.retval.problems;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import net.groboclown.retval.SourcedProblem;
 
 /**
- * A problem that comes from a known file.
+ * A problem that comes from a known file.  It may also include the line and column in the
+ * file where the problem was found.
+ *
+ * <p>Problems created from a {@link Path} or an {@link IOException} keep the original
+ * object, and only create the source and message text when they are first requested, so
+ * problems that are only counted or discarded never pay the cost of building the text.
+ *
+ * <p>When {@link UnhandledExceptionProblem#setStacklessCapture(int)} is set to a stackless
+ * capture, problems created from an {@link IOException} do not keep the exception, so that
+ * it can be garbage collected along with its stack trace.  They record the message text
+ * instead, and {@link #getCause()} returns null.
  */
 @Immutable
-public class FileProblem implements SourcedProblem {
-    private final String filePath;
-    private final String localMessage;
+public class FileProblem extends LazyMessageProblem implements SourcedProblem {
+    @Nullable
+    private final Path path;
+    @Nullable
+    private final IOException cause;
+    private final long line;
+    private final int column;
+    // Created from the path on first use, in the same way as the message.
+    @Nullable
+    private volatile String filePath;
 
     /**
      * Create the file problem from the file path and message.
@@ -27,7 +47,22 @@ public class FileProblem implements SourcedProblem {
     public static FileProblem from(
             @Nonnull final String filePath, @Nonnull final String localMessage
     ) {
-        return new FileProblem(filePath, localMessage);
+        return new FileProblem(null, filePath, null, localMessage, 0, 0);
+    }
+
+    /**
+     * Create the file problem from the file path and message.
+     *
+     * @param path path to the file that caused the problem.
+     * @param localMessage informative user message about the problem.
+     * @return the problem instance.
+     * @since 2.5
+     */
+    @Nonnull
+    public static FileProblem from(
+            @Nonnull final Path path, @Nonnull final String localMessage
+    ) {
+        return new FileProblem(path, null, null, localMessage, 0, 0);
     }
 
     /**
@@ -42,6 +77,19 @@ public class FileProblem implements SourcedProblem {
         return from(file.getPath(), ex);
     }
 
+    /**
+     * Create a file problem from a file path and an I/O exception.
+     *
+     * @param path source file
+     * @param ex exception generated from the operation.
+     * @return the file problem object.
+     * @since 2.5
+     */
+    @Nonnull
+    public static FileProblem from(@Nonnull final Path path, @Nonnull final IOException ex) {
+        return fromException(path, null, ex);
+    }
+
     /**
      * Create a file problem from a file object and an I/O exception.
      *
@@ -51,31 +99,167 @@ public class FileProblem implements SourcedProblem {
      */
     @Nonnull
     public static FileProblem from(@Nonnull final String source, @Nonnull final IOException ex) {
+        return fromException(null, source, ex);
+    }
+
+    /**
+     * Create a file problem at a position in a text file.
+     *
+     * @param filePath path to the source that caused the problem.
+     * @param line line number of the problem, starting at 1, or 0 if not known.
+     * @param column column in the line, starting at 1, or 0 if not known.
+     * @param localMessage informative user message about the problem.
+     * @return the problem instance.
+     * @throws IllegalArgumentException if the line or column is negative.
+     * @since 2.5
+     */
+    @Nonnull
+    public static FileProblem at(
+            @Nonnull final String filePath,
+            final long line,
+            final int column,
+            @Nonnull final String localMessage
+    ) {
+        checkPosition(line, column);
+        return new FileProblem(null, filePath, null, localMessage, line, column);
+    }
+
+    /**
+     * Create a file problem at a position in a text file.
+     *
+     * @param path path to the file that caused the problem.
+     * @param line line number of the problem, starting at 1, or 0 if not known.
+     * @param column column in the line, starting at 1, or 0 if not known.
+     * @param localMessage informative user message about the problem.
+     * @return the problem instance.
+     * @throws IllegalArgumentException if the line or column is negative.
+     * @since 2.5
+     */
+    @Nonnull
+    public static FileProblem at(
+            @Nonnull final Path path,
+            final long line,
+            final int column,
+            @Nonnull final String localMessage
+    ) {
+        checkPosition(line, column);
+        return new FileProblem(path, null, null, localMessage, line, column);
+    }
+
+    @Nonnull
+    private static FileProblem fromException(
+            @Nullable final Path path,
+            @Nullable final String source,
+            @Nonnull final IOException ex
+    ) {
+        if (UnhandledExceptionProblem.getStacklessCapture()
+                == UnhandledExceptionProblem.FULL_CAPTURE) {
+            return new FileProblem(path, source, ex, null, 0, 0);
+        }
+        final String sourceText = source == null
+                ? Objects.requireNonNull(path).toString()
+                : source;
         return new FileProblem(
-                source,
-                UnhandledExceptionProblem.exceptionText(ex, source + " caused a problem")
-        );
+                path, sourceText, null,
+                UnhandledExceptionProblem.exceptionText(ex, sourceText + " caused a problem"),
+                0, 0);
+    }
+
+    private static void checkPosition(final long line, final int column) {
+        if (line < 0 || column < 0) {
+            throw new IllegalArgumentException("line and column must not be negative");
+        }
     }
 
-    private FileProblem(@Nonnull final String filePath, @Nonnull final String localMessage) {
+    // Either the path or the file path is set, and either the cause or the message is set.
+    private FileProblem(
+            @Nullable final Path path,
+            @Nullable final String filePath,
+            @Nullable final IOException cause,
+            @Nullable final String localMessage,
+            final long line,
+            final int column
+    ) {
+        super(localMessage);
+        this.path = path;
         this.filePath = filePath;
-        this.localMessage = localMessage;
+        this.cause = cause;
+        this.line = line;
+        this.column = column;
     }
 
     @Nonnull
     @Override
-    public String localMessage() {
-        return this.localMessage;
+    String createLocalMessage() {
+        return UnhandledExceptionProblem.exceptionText(
+                Objects.requireNonNull(this.cause), getSource() + " caused a problem");
     }
 
     @Nonnull
     @Override
     public String getSource() {
-        return this.filePath;
+        String ret = this.filePath;
+        if (ret == null) {
+            ret = Objects.requireNonNull(this.path).toString();
+            this.filePath = ret;
+        }
+        return ret;
+    }
+
+    /**
+     * Get the path of the file, if the problem was created with one.
+     *
+     * @return the path, or null if the problem was created with a string or {@link File}
+     *      source.
+     * @since 2.5
+     */
+    @Nullable
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Get the I/O exception that caused the problem, if the problem was created from one
+     * and kept it.
+     *
+     * @return the exception, or null if the problem was created with a message, or was
+     *      created while a stackless capture was set.
+     * @since 2.5
+     */
+    @Nullable
+    public IOException getCause() {
+        return this.cause;
+    }
+
+    /**
+     * Get the line in the file where the problem was found.
+     *
+     * @return the line number, starting at 1, or 0 if not known.
+     * @since 2.5
+     */
+    public long getLine() {
+        return this.line;
+    }
+
+    /**
+     * Get the column in the line where the problem was found.
+     *
+     * @return the column, starting at 1, or 0 if not known.
+     * @since 2.5
+     */
+    public int getColumn() {
+        return this.column;
     }
 
     @Override
     public String toString() {
-        return getSource() + ": " + localMessage();
+        final StringBuilder ret = new StringBuilder(getSource());
+        if (this.line > 0) {
+            ret.append(':').append(this.line);
+            if (this.column > 0) {
+                ret.append(':').append(this.column);
+            }
+        }
+        return ret.append(": ").append(localMessage()).toString();
     }
 }
@@ -0,0 +1,81 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Problem with a message that is only formatted when it is first requested.  Problems that
+ * are only counted or discarded never pay the cost of building the message text.
+ *
+ * <p>The template uses the {@link String#format(String, Object...)} syntax.  The arguments
+ * are kept by reference until the message is formatted, so they should not change after
+ * the problem is created.  The template is not checked until then; if it does not match
+ * the arguments, then the message is the template followed by the arguments.
+ *
+ * <p>Two formatted problems are equal if they have equal templates and arguments; this
+ * does not require formatting the message.
+ *
+ * @since 2.5
+ */
+@Immutable
+public class FormattedProblem extends LazyMessageProblem {
+    private final String template;
+    private final Object[] args;
+
+    /**
+     * Create a problem from a message template and its arguments.
+     *
+     * @param template {@link String#format(String, Object...)} template for the message text.
+     * @param args arguments referenced by the template.
+     * @return the problem value.
+     */
+    @Nonnull
+    public static FormattedProblem of(
+            @Nonnull final String template,
+            @Nonnull final Object... args
+    ) {
+        return new FormattedProblem(
+                Objects.requireNonNull(template, "template"),
+                Objects.requireNonNull(args, "args"));
+    }
+
+    private FormattedProblem(@Nonnull final String template, @Nonnull final Object[] args) {
+        super(null);
+        this.template = template;
+        this.args = args;
+    }
+
+    @Nonnull
+    @Override
+    String createLocalMessage() {
+        return format(this.template, this.args);
+    }
+
+    @Override
+    public String toString() {
+        return localMessage();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.template.hashCode() + Arrays.hashCode(this.args);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (other == null) {
+            return false;
+        }
+        if (other == this) {
+            return true;
+        }
+        if (FormattedProblem.class.equals(other.getClass())) {
+            final FormattedProblem that = (FormattedProblem) other;
+            return this.template.equals(that.template) && Arrays.equals(this.args, that.args);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import java.util.Arrays;
+import java.util.IllegalFormatException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.groboclown.retval.Problem;
+
+/**
+ * Base for problems that only create their message text when it is first requested.
+ */
+abstract class LazyMessageProblem implements Problem {
+    // Racing threads generate the same text, so this does not need further
+    // synchronization.
+    @Nullable
+    private volatile String localMessage;
+
+    LazyMessageProblem(@Nullable final String localMessage) {
+        this.localMessage = localMessage;
+    }
+
+    @Nonnull
+    @Override
+    public final String localMessage() {
+        String ret = this.localMessage;
+        if (ret == null) {
+            ret = createLocalMessage();
+            this.localMessage = ret;
+        }
+        return ret;
+    }
+
+    /**
+     * Create the message text.  Only called if the text was not given to the constructor.
+     *
+     * @return the message text.
+     */
+    @Nonnull
+    abstract String createLocalMessage();
+
+    // The message is formatted long after the problem was created, usually while a report
+    // is written, so a bad template falls back to the raw text rather than throwing.
+    @Nonnull
+    static String format(@Nonnull final String template, @Nonnull final Object[] args) {
+        try {
+            return String.format(template, args);
+        } catch (final IllegalFormatException e) {
+            return args.length == 0 ? template : template + " " + Arrays.toString(args);
+        }
+    }
+}
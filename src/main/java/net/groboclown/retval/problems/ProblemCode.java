@@ -0,0 +1,117 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A registered kind of problem, identified by a unique integer.  Codes are registered
+ * once, usually as constants, and used to create {@link CodedProblem} instances:
+ * <pre>
+ *     static final ProblemCode TYPE_MISMATCH = ProblemCode.register(
+ *             1001, ProblemSeverity.ERROR, "%s: expected %s, found %s");
+ * </pre>
+ *
+ * <p>There is only ever one instance for each id, so codes can be compared by identity.
+ *
+ * @since 2.5
+ */
+@Immutable
+public final class ProblemCode {
+    private static final Map<Integer, ProblemCode> REGISTRY = new ConcurrentHashMap<>();
+
+    private final int id;
+    private final ProblemSeverity severity;
+    private final String template;
+
+    /**
+     * Register a new problem code.  Registering the same id with the same severity and
+     * template more than once returns the originally registered code.
+     *
+     * @param id unique identifier for the code.
+     * @param severity how serious the problem is.
+     * @param template {@link String#format(String, Object...)} template for the message text.
+     * @return the registered code.
+     * @throws IllegalArgumentException if the id is already registered with a different
+     *      severity or template.
+     */
+    @Nonnull
+    public static ProblemCode register(
+            final int id,
+            @Nonnull final ProblemSeverity severity,
+            @Nonnull final String template
+    ) {
+        final ProblemCode code = new ProblemCode(
+                id,
+                Objects.requireNonNull(severity, "severity"),
+                Objects.requireNonNull(template, "template"));
+        final ProblemCode existing = REGISTRY.putIfAbsent(id, code);
+        if (existing == null) {
+            return code;
+        }
+        if (existing.severity != severity || ! existing.template.equals(template)) {
+            throw new IllegalArgumentException("Problem code " + id
+                    + " is already registered as " + existing);
+        }
+        return existing;
+    }
+
+    /**
+     * Find the registered code with the id.
+     *
+     * @param id identifier of the code.
+     * @return the registered code, or null if no code has the id.
+     */
+    @Nullable
+    public static ProblemCode find(final int id) {
+        return REGISTRY.get(id);
+    }
+
+    private ProblemCode(
+            final int id,
+            @Nonnull final ProblemSeverity severity,
+            @Nonnull final String template
+    ) {
+        this.id = id;
+        this.severity = severity;
+        this.template = template;
+    }
+
+    /**
+     * Get the unique identifier for the code.
+     *
+     * @return the code identifier.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Get how serious problems with this code are.
+     *
+     * @return the severity.
+     */
+    @Nonnull
+    public ProblemSeverity getSeverity() {
+        return this.severity;
+    }
+
+    /**
+     * Get the message template for problems with this code.
+     *
+     * @return the {@link String#format(String, Object...)} template.
+     */
+    @Nonnull
+    public String getTemplate() {
+        return this.template;
+    }
+
+    @Override
+    public String toString() {
+        return this.id + " (" + this.severity + "): " + this.template;
+    }
+}
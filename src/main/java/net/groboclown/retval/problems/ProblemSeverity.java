@@ -0,0 +1,18 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+/**
+ * How serious a {@link ProblemCode} is.
+ *
+ * @since 2.5
+ */
+public enum ProblemSeverity {
+    /** Informational only. */
+    INFO,
+
+    /** A possible issue that does not prevent the value from being used. */
+    WARNING,
+
+    /** An issue that prevents the value from being used. */
+    ERROR
+}
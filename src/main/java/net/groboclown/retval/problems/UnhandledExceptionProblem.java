@@ -1,49 +1,204 @@
 // Released under the MIT License. 
 package net.groboclown.retval.problems;
 
+import java.util.Arrays;
+import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import net.groboclown.retval.Problem;
 
 /**
  * A problem that comes from an exception that wasn't properly handled.
+ *
+ * <p>By default, the problem keeps a reference to the exception.  A stackless problem
+ * instead only records the exception class name, its message, and the top stack frames,
+ * so that the exception, along with its cause and suppressed exceptions, can be garbage
+ * collected.  Stackless problems can be created directly with
+ * {@link #wrapStackless(Throwable, int)}, or made the default for every
+ * {@link #wrap(Throwable)} call, including those made by this library such as in
+ * {@link net.groboclown.retval.Ret#closeWith}, with {@link #setStacklessCapture(int)}.
  */
 @Immutable
 public class UnhandledExceptionProblem implements Problem {
-    // The exception is maintained primarily for developers.
+    /**
+     * The {@link #setStacklessCapture(int)} value that keeps the full exception.
+     *
+     * @since 2.5
+     */
+    public static final int FULL_CAPTURE = -1;
+
+    private static volatile int stacklessFrames = FULL_CAPTURE;
+
+    // The exception is maintained primarily for developers.  It is null for stackless
+    // problems.
+    @Nullable
     private final Throwable source;
+    @Nullable
+    private final String className;
+    @Nullable
+    private final String message;
+    @Nullable
+    private final StackTraceElement[] frames;
 
     /**
-     * Create an {@link UnhandledExceptionProblem} from an exception.
+     * Create an {@link UnhandledExceptionProblem} from an exception.  If a stackless capture
+     * is set with {@link #setStacklessCapture(int)}, then the problem is stackless.
      *
      * @param source source exception.
      * @return the exception wrapped in a problem.
      */
     @Nonnull
     public static UnhandledExceptionProblem wrap(@Nonnull final Throwable source) {
+        final int maxFrames = stacklessFrames;
+        if (maxFrames >= 0) {
+            return wrapStackless(source, maxFrames);
+        }
         return new UnhandledExceptionProblem(source);
     }
 
+    /**
+     * Create a stackless {@link UnhandledExceptionProblem} from an exception.  The problem
+     * only records the exception class name, message, and up to {@literal maxFrames} of the
+     * top stack frames, and does not keep a reference to the exception.
+     *
+     * @param source source exception.
+     * @param maxFrames maximum number of stack frames to keep.
+     * @return the exception information in a problem.
+     * @throws IllegalArgumentException if {@literal maxFrames} is negative.
+     * @since 2.5
+     */
+    @Nonnull
+    public static UnhandledExceptionProblem wrapStackless(
+            @Nonnull final Throwable source,
+            final int maxFrames
+    ) {
+        if (maxFrames < 0) {
+            throw new IllegalArgumentException("maxFrames must not be negative");
+        }
+        final StackTraceElement[] stack = source.getStackTrace();
+        final String className = source.getClass().getName();
+        return new UnhandledExceptionProblem(
+                className,
+                exceptionText(source, className),
+                stack.length <= maxFrames ? stack : Arrays.copyOf(stack, maxFrames));
+    }
+
+    /**
+     * Create a stackless {@link UnhandledExceptionProblem} from exception information
+     * recorded elsewhere, such as a problem decoded from another process.  The problem has
+     * no stack frames.
+     *
+     * @param className class name of the original exception.
+     * @param message message of the original exception.
+     * @return the exception information in a problem.
+     * @since 2.5
+     */
+    @Nonnull
+    public static UnhandledExceptionProblem fromCaptured(
+            @Nonnull final String className,
+            @Nonnull final String message
+    ) {
+        return new UnhandledExceptionProblem(
+                Objects.requireNonNull(className, "className"),
+                Objects.requireNonNull(message, "message"),
+                new StackTraceElement[0]);
+    }
+
+    /**
+     * Set how {@link #wrap(Throwable)} captures exceptions for every thread.
+     *
+     * @param maxFrames the maximum number of stack frames kept by stackless problems, or
+     *      {@link #FULL_CAPTURE} to keep the full exception.
+     * @throws IllegalArgumentException if the value is negative and not
+     *      {@link #FULL_CAPTURE}.
+     * @since 2.5
+     */
+    public static void setStacklessCapture(final int maxFrames) {
+        if (maxFrames < FULL_CAPTURE) {
+            throw new IllegalArgumentException("maxFrames must not be negative");
+        }
+        stacklessFrames = maxFrames;
+    }
+
+    /**
+     * Get how {@link #wrap(Throwable)} captures exceptions.
+     *
+     * @return the maximum number of stack frames kept by stackless problems, or
+     *      {@link #FULL_CAPTURE} if the full exception is kept.
+     * @since 2.5
+     */
+    public static int getStacklessCapture() {
+        return stacklessFrames;
+    }
+
     private UnhandledExceptionProblem(@Nonnull final Throwable source) {
         this.source = source;
+        this.className = null;
+        this.message = null;
+        this.frames = null;
+    }
+
+    private UnhandledExceptionProblem(
+            @Nonnull final String className,
+            @Nonnull final String message,
+            @Nonnull final StackTraceElement[] frames
+    ) {
+        this.source = null;
+        this.className = className;
+        this.message = message;
+        this.frames = frames;
     }
 
     @Nonnull
     @Override
     public String localMessage() {
+        if (this.source == null) {
+            return this.message;
+        }
         return exceptionText(this.source, this.source.getClass().getName());
     }
 
     /**
-     * Get the exception that caused this problem.
+     * Get the exception that caused this problem.  For stackless problems, this is a new
+     * {@link CapturedException} with the recorded information.
      *
      * @return source exception
      */
     @Nonnull
     public Throwable getSourceException() {
+        if (this.source == null) {
+            return new CapturedException(this.className, this.message, this.frames);
+        }
         return this.source;
     }
 
+    /**
+     * Get the class name of the exception that caused this problem.  Unlike
+     * {@link #getSourceException()}, this does not create a new exception for stackless
+     * problems.
+     *
+     * @return the source exception's class name.
+     * @since 2.5
+     */
+    @Nonnull
+    public String getExceptionClassName() {
+        if (this.source == null) {
+            return this.className;
+        }
+        return this.source.getClass().getName();
+    }
+
+    /**
+     * Is this a stackless problem, which does not keep a reference to the exception?
+     *
+     * @return true if only the exception information was recorded.
+     * @since 2.5
+     */
+    public boolean isStackless() {
+        return this.source == null;
+    }
+
     @Override
     public String toString() {
         return localMessage();
@@ -59,4 +214,43 @@ public class UnhandledExceptionProblem implements Problem {
                 )
                 : ex.getLocalizedMessage();
     }
+
+
+    /**
+     * Stands in for the original exception of a stackless problem.  It has the recorded
+     * stack frames, but no cause or suppressed exceptions.
+     *
+     * @since 2.5
+     */
+    public static final class CapturedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final String exceptionClassName;
+
+        private CapturedException(
+                @Nonnull final String exceptionClassName,
+                @Nonnull final String message,
+                @Nonnull final StackTraceElement[] frames
+        ) {
+            super(exceptionClassName + ": " + message, null, false, true);
+            this.exceptionClassName = exceptionClassName;
+            setStackTrace(frames);
+        }
+
+        /**
+         * Get the class name of the original exception.
+         *
+         * @return the original exception's class name.
+         */
+        @Nonnull
+        public String getExceptionClassName() {
+            return this.exceptionClassName;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            // The recorded frames replace the stack trace.
+            return this;
+        }
+    }
 }
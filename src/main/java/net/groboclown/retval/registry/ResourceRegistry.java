@@ -0,0 +1,124 @@
+// Released under the MIT License.
+package net.groboclown.retval.registry;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.RetNullable;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.problems.FormattedProblem;
+import net.groboclown.retval.problems.LocalizedProblem;
+
+/**
+ * Stores named resources, and looks them up by their expected type.
+ *
+ * <p>Each name can be registered once, and resources can't be removed, so a lookup always
+ * finds the same value.  Lookups do not lock, and can run from any number of threads
+ * while resources are added.  The problem for a value of the wrong type is created once
+ * for each name and expected type, and reused on later lookups.
+ *
+ * @since 2.5
+ */
+public class ResourceRegistry {
+    private final Map<String, Entry> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Add a unique resource to the registry.
+     *
+     * @param name name of the resource.
+     * @param value non-null value to store.
+     * @return ok, or a problem if a resource with the name is already registered.
+     */
+    @Nonnull
+    public RetVoid addResource(@Nonnull final String name, @Nonnull final Object value) {
+        final Entry entry = new Entry(Objects.requireNonNull(value));
+        if (this.resources.putIfAbsent(Objects.requireNonNull(name), entry) != null) {
+            return RetVoid.fromProblem(LocalizedProblem.from("Duplicate resource " + name));
+        }
+        return RetVoid.ok();
+    }
+
+    /**
+     * Get the number of registered resources.
+     *
+     * @return the number of resources.
+     */
+    public int size() {
+        return this.resources.size();
+    }
+
+    /**
+     * Get the resource from the registry.  If the resource isn't registered, then a null
+     * value is returned.  If the value is registered but of the wrong type, then a problem
+     * is returned.
+     *
+     * @param name name of the resource; passing null is allowed as a helper.
+     * @param type expected value type.
+     * @param <T> value type.
+     * @return the value if found and of the correct type, null if not found, or a problem
+     *      if of the wrong type.
+     */
+    @Nonnull
+    public <T> RetNullable<T> getResource(
+            @Nullable final String name,
+            @Nonnull final Class<? extends T> type
+    ) {
+        if (name == null) {
+            return RetNullable.ok(null);
+        }
+        final Entry entry = this.resources.get(name);
+        if (entry == null) {
+            return RetNullable.ok(null);
+        }
+        if (type.isInstance(entry.value)) {
+            return RetNullable.ok(type.cast(entry.value));
+        }
+        return RetNullable.fromProblem(entry.typeMismatch(name, type));
+    }
+
+    /**
+     * Require that the named resource exists and is of the expected type.
+     *
+     * @param name resource name.
+     * @param type expected value type.
+     * @param <T> value type.
+     * @return the value if found and of the correct type, else a problem.
+     */
+    @Nonnull
+    public <T> RetVal<T> requireResource(
+            @Nonnull final String name,
+            @Nonnull final Class<? extends T> type
+    ) {
+        final Entry entry = this.resources.get(name);
+        if (entry == null) {
+            return RetVal.fromProblem(LocalizedProblem.from(name + ": resource not registered"));
+        }
+        if (type.isInstance(entry.value)) {
+            return RetVal.ok(type.cast(entry.value));
+        }
+        return RetVal.fromProblem(entry.typeMismatch(name, type));
+    }
+
+
+    private static final class Entry {
+        private final Object value;
+        // Keyed by the expected type.  The map's table is only allocated on first use.
+        private final Map<Class<?>, Problem> mismatches = new ConcurrentHashMap<>();
+
+        private Entry(@Nonnull final Object value) {
+            this.value = value;
+        }
+
+        @Nonnull
+        private Problem typeMismatch(@Nonnull final String name, @Nonnull final Class<?> type) {
+            return this.mismatches.computeIfAbsent(
+                    type,
+                    (t) -> FormattedProblem.of(
+                            "%s: expected %s, found %s", name, t, this.value.getClass()));
+        }
+    }
+}
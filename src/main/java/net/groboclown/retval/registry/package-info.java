@@ -0,0 +1,7 @@
+// Released under the MIT License.
+
+/**
+ * Thread-safe stores of named values, with typed lookups that return problems for missing
+ * values or values of the wrong type.
+ */
+package net.groboclown.retval.registry;
@@ -1,11 +1,17 @@
 // Released under the MIT License.
 package net.groboclown.retval;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import net.groboclown.retval.impl.MonitoredFactory;
+import net.groboclown.retval.io.ProblemJournal;
 import net.groboclown.retval.monitor.MockProblemMonitor;
 import net.groboclown.retval.problems.LocalizedProblem;
 import org.junit.jupiter.api.AfterEach;
@@ -350,6 +356,42 @@ class ProblemCollectorTest {
         assertEquals(List.of(), retList);
     }
 
+    @Test
+    void validateEach_maxFailures() {
+        final LocalizedProblem problem1 = LocalizedProblem.from("1");
+        final LocalizedProblem problem3 = LocalizedProblem.from("3");
+        final List<String> called = new ArrayList<>();
+        final ProblemCollector pc = ProblemCollector.from();
+        pc.validateEach(List.of("1", "2", "3", "4", "5"), (val) -> {
+            called.add(val);
+            if ("1".equals(val) || "3".equals(val)) {
+                return RetVoid.fromProblem(LocalizedProblem.from(val));
+            }
+            return "2".equals(val) ? null : RetVoid.ok();
+        }, 2);
+        assertEquals(List.of("1", "2", "3"), called);
+        assertEquals(List.of(problem1, problem3), pc.anyProblems());
+        assertEquals(2, pc.getSkippedCount());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void validateEach_maxFailures_notReached() {
+        final ProblemCollector pc = ProblemCollector.from();
+        pc.validateEach(List.of("1", "2"), (val) -> RetVoid.ok(), 1);
+        assertEquals(List.of(), pc.anyProblems());
+        assertEquals(0, pc.getSkippedCount());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void validateEach_maxFailures_invalid() {
+        final ProblemCollector pc = ProblemCollector.from();
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> pc.validateEach(List.of("1"), (val) -> null, 0));
+    }
+
     @Test
     void validateEach_empty() {
         final ProblemCollector pc = ProblemCollector.from();
@@ -827,6 +869,15 @@ class ProblemCollectorTest {
         assertEquals("0 - 1", pc.debugProblems(" - "));
     }
 
+    @Test
+    void appendProblems() throws IOException {
+        final ProblemCollector pc = ProblemCollector.from()
+                .withProblem(LocalizedProblem.from("0"), LocalizedProblem.from("1"));
+        final StringWriter out = new StringWriter();
+        pc.appendProblems(out, " - ");
+        assertEquals("0 - 1", out.toString());
+    }
+
     @Test
     void joinProblemsWith_ok() {
         final LocalizedProblem problem0 = LocalizedProblem.from("0");
@@ -855,6 +906,110 @@ class ProblemCollectorTest {
         assertEquals(List.of(problem1), pc.anyProblems());
     }
 
+    @Test
+    void bounded_underLimit() {
+        final LocalizedProblem problem1 = LocalizedProblem.from("1");
+        final ProblemCollector pc = ProblemCollector.bounded(2).withProblem(problem1);
+        assertEquals(List.of(problem1), pc.anyProblems());
+        assertEquals(0, pc.getDroppedProblemCount());
+    }
+
+    @Test
+    void bounded_overLimit() {
+        final LocalizedProblem problem1 = LocalizedProblem.from("1");
+        final LocalizedProblem problem2 = LocalizedProblem.from("2");
+        final ProblemCollector pc = ProblemCollector.bounded(1)
+                .withProblem(problem1, problem2)
+                .with(RetVoid.fromProblem(problem2));
+        pc.add(problem2);
+        assertEquals(3, pc.getDroppedProblemCount());
+        assertEquals(2, pc.anyProblems().size());
+        final String summary = String.format("and %,d more problems", 3);
+        assertEquals("1, " + summary, pc.debugProblems(", "));
+
+        final RetVoid res = pc.completeVoid();
+        assertEquals(List.of(problem1, LocalizedProblem.from(summary)), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void bounded_validateEach() {
+        final ProblemCollector pc = ProblemCollector.bounded(1)
+                .validateEach(List.of("a", "b", "c"), (v) -> RetVoid.fromProblem(
+                        LocalizedProblem.from(v)));
+        assertEquals(2, pc.getDroppedProblemCount());
+        assertEquals(2, pc.anyProblems().size());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void deduplicated() {
+        final LocalizedProblem problem1 = LocalizedProblem.from("1");
+        final LocalizedProblem problem2 = LocalizedProblem.from("2");
+        final ProblemCollector pc = ProblemCollector.deduplicated()
+                .withProblem(problem1, problem2, LocalizedProblem.from("1"))
+                .with(RetVoid.fromProblem(problem1));
+        assertEquals(List.of(problem1, problem2), pc.anyProblems());
+        assertEquals("1, 2", pc.debugProblems(", "));
+        assertEquals(List.of(problem1, problem2), pc.completeVoid().anyProblems());
+        final Map<Problem, Long> counts = pc.getOccurrenceCounts();
+        assertEquals(Map.of(problem1, 3L, problem2, 1L), counts);
+        assertEquals(List.of(problem1, problem2), new ArrayList<>(counts.keySet()));
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void storedIn() throws IOException {
+        final Path directory = Files.createTempDirectory("journal");
+        final RetVal<ProblemJournal> created = ProblemJournal.create(directory, 1);
+        assertTrue(created.isOk());
+        try (ProblemJournal journal = created.result()) {
+            final LocalizedProblem problem1 = LocalizedProblem.from("1");
+            final LocalizedProblem problem2 = LocalizedProblem.from("2");
+            final ProblemCollector pc = ProblemCollector.storedIn(journal)
+                    .withProblem(problem1, problem2);
+            assertEquals(1, journal.getStoredCount());
+            assertEquals(List.of(problem1, problem2), pc.anyProblems());
+            assertEquals(List.of(problem1, problem2), pc.validProblems());
+            assertEquals("1, 2", pc.debugProblems(", "));
+            final List<Problem> joined = new ArrayList<>();
+            pc.joinProblemsWith(joined);
+            assertEquals(List.of(problem1, problem2), joined);
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> ProblemCollector.storedIn(journal));
+        } finally {
+            Files.delete(directory);
+        }
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void deduplicated_key() {
+        final LocalizedProblem problem1 = LocalizedProblem.from("row 1: bad");
+        final LocalizedProblem problem2 = LocalizedProblem.from("row 2: bad");
+        final ProblemCollector pc = ProblemCollector.deduplicated(
+                (p) -> p.localMessage().substring(p.localMessage().indexOf(':')))
+                .withProblem(problem1, problem2);
+        assertEquals(List.of(problem1), pc.anyProblems());
+        assertEquals(Map.of(problem1, 2L), pc.getOccurrenceCounts());
+    }
+
+    @Test
+    void getOccurrenceCounts_notDeduplicated() {
+        final LocalizedProblem problem1 = LocalizedProblem.from("1");
+        final LocalizedProblem problem2 = LocalizedProblem.from("2");
+        final ProblemCollector pc = ProblemCollector.from(problem1, problem2, problem1);
+        assertEquals(Map.of(problem1, 2L, problem2, 1L), pc.getOccurrenceCounts());
+        assertEquals(3, pc.anyProblems().size());
+    }
+
+    @Test
+    void getDroppedProblemCount_unbounded() {
+        final ProblemCollector pc = ProblemCollector.from(LocalizedProblem.from("1"));
+        assertEquals(0, pc.getDroppedProblemCount());
+    }
+
 
     @BeforeEach
     void beforeEach() {
@@ -0,0 +1,34 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import net.groboclown.retval.problems.LocalizedProblem;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProblemStoreTest {
+    @Test
+    void create() {
+        final LocalizedProblem p1 = LocalizedProblem.from("p1");
+        final LocalizedProblem p2 = LocalizedProblem.from("p2");
+        final ProblemStore store = ProblemStore.create();
+        store.add(p1);
+        store.add(p2);
+        store.add(p1);
+
+        final Collection<Problem> snapshot = store.snapshot();
+        store.add(p2);
+        assertEquals(List.of(p1, p2, p1), snapshot);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(p1));
+
+        assertEquals(0, store.droppedCount());
+        final Map<Problem, Long> counts = store.occurrenceCounts();
+        assertEquals(Map.of(p1, 2L, p2, 2L), counts);
+        assertEquals(List.of(p1, p2), new ArrayList<>(counts.keySet()));
+    }
+}
@@ -0,0 +1,197 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.LocalizedProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetCollectorsTest {
+    MockProblemMonitor monitor;
+
+    @Test
+    void toRetList_ok() {
+        final RetVal<List<String>> res = Stream.of(RetVal.ok("a"), RetVal.ok("b"))
+                .collect(RetCollectors.toRetList());
+        assertTrue(res.isOk());
+        assertEquals(List.of("a", "b"), res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toRetList_problems() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final Problem p2 = LocalizedProblem.from("p2");
+        final RetVal<List<String>> res = Stream.of(
+                        RetVal.<String>fromProblem(p1),
+                        RetVal.ok("b"),
+                        RetVal.<String>fromProblem(p2))
+                .collect(RetCollectors.toRetList());
+        assertFalse(res.isOk());
+        assertEquals(List.of(p1, p2), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toRetList_parallel_ok() {
+        final List<Integer> expected = IntStream.range(0, 2000).boxed()
+                .collect(Collectors.toList());
+        final RetVal<List<Integer>> res = expected.parallelStream()
+                .map(RetVal::ok)
+                .collect(RetCollectors.toRetList());
+        assertTrue(res.isOk());
+        assertEquals(expected, res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toRetList_parallel_problems() {
+        final List<Problem> expected = new ArrayList<>();
+        final List<RetVal<Integer>> values = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (i % 3 == 0) {
+                final Problem problem = LocalizedProblem.from("p" + i);
+                expected.add(problem);
+                values.add(RetVal.fromProblem(problem));
+            } else {
+                values.add(RetVal.ok(i));
+            }
+        }
+        final RetVal<List<Integer>> res = values.parallelStream()
+                .collect(RetCollectors.toRetList());
+        assertFalse(res.isOk());
+        assertEquals(expected, res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toRetMap_ok() {
+        final RetVal<Map<Integer, String>> res = Stream.of(RetVal.ok("a"), RetVal.ok("bc"))
+                .collect(RetCollectors.toRetMap(String::length, (v) -> v + "!"));
+        assertTrue(res.isOk());
+        assertEquals(Map.of(1, "a!", 2, "bc!"), res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toRetMap_problems() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final RetVal<Map<Integer, String>> res = Stream.of(
+                        RetVal.ok("a"), RetVal.<String>fromProblem(p1))
+                .collect(RetCollectors.toRetMap(String::length, (v) -> v));
+        assertFalse(res.isOk());
+        assertEquals(List.of(p1), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toRetMap_duplicate() {
+        try {
+            Stream.of(RetVal.ok("a"), RetVal.ok("b"))
+                    .collect(RetCollectors.toRetMap(String::length, (v) -> v));
+            fail("Did not throw IllegalStateException");
+        } catch (final IllegalStateException e) {
+            assertEquals("Duplicate key (attempted merging values a and b)", e.getMessage());
+        }
+    }
+
+    @Test
+    void toRetMap_parallel_merge() {
+        final RetVal<Map<Integer, Integer>> res = IntStream.range(0, 2000).boxed()
+                .parallel()
+                .map(RetVal::ok)
+                .collect(RetCollectors.toRetMap((v) -> v % 10, (v) -> 1, Integer::sum));
+        assertTrue(res.isOk());
+        assertEquals(10, res.result().size());
+        assertEquals(200, res.result().get(3));
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void partitioningProblems_ok() {
+        final WarningVal<List<String>> res = Stream.of(RetVal.ok("a"), RetVal.ok("b"))
+                .collect(RetCollectors.partitioningProblems());
+        assertTrue(res.isOk());
+        assertEquals(List.of("a", "b"), res.getValue());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void partitioningProblems_problems() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final WarningVal<List<String>> res = Stream.of(
+                        RetVal.ok("a"), RetVal.<String>fromProblem(p1), RetVal.ok("b"))
+                .collect(RetCollectors.partitioningProblems());
+        assertFalse(res.isOk());
+        assertEquals(List.of("a", "b"), res.getValue());
+        assertEquals(List.of(p1), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void partitioningProblems_parallel() {
+        final List<Problem> expectedProblems = new ArrayList<>();
+        final List<Integer> expectedValues = new ArrayList<>();
+        final List<RetVal<Integer>> values = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (i % 3 == 0) {
+                final Problem problem = LocalizedProblem.from("p" + i);
+                expectedProblems.add(problem);
+                values.add(RetVal.fromProblem(problem));
+            } else {
+                expectedValues.add(i);
+                values.add(RetVal.ok(i));
+            }
+        }
+        final WarningVal<List<Integer>> res = values.parallelStream()
+                .collect(RetCollectors.partitioningProblems());
+        assertFalse(res.isOk());
+        assertEquals(expectedValues, res.getValue());
+        assertEquals(expectedProblems, res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toProblemCollector() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final Problem p2 = LocalizedProblem.from("p2");
+        final ProblemCollector res = Stream.of(
+                        RetVoid.fromProblem(p1), RetVal.ok("a"), RetNullable.fromProblem(p2))
+                .collect(RetCollectors.toProblemCollector());
+        assertEquals(List.of(p1, p2), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toProblemCollector_parallel() {
+        final ProblemCollector res = IntStream.range(0, 2000)
+                .parallel()
+                .mapToObj((i) -> i % 2 == 0
+                        ? RetVoid.ok()
+                        : RetVoid.fromProblem(LocalizedProblem.from("p" + i)))
+                .collect(RetCollectors.toProblemCollector());
+        assertEquals(1000, res.anyProblems().size());
+        assertEquals("p1", res.anyProblems().iterator().next().localMessage());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+        this.monitor.traceEnabled = true;
+    }
+
+    @AfterEach
+    void afterEach() {
+        this.monitor.tearDown();
+    }
+}
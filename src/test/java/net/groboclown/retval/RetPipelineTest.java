@@ -0,0 +1,167 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.LocalizedProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetPipelineTest {
+    MockProblemMonitor monitor;
+
+    @Test
+    void start_null() {
+        try {
+            RetPipeline.start(null);
+            fail("Did not throw NPE");
+        } catch (final NullPointerException e) {
+            // don't inspect exception
+        }
+    }
+
+    @Test
+    void start_noSteps() {
+        final RetVal<String> res = RetPipeline.start("x").run();
+        assertTrue(res.isOk());
+        assertEquals("x", res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void start_allSteps_ok() {
+        final List<Integer> ran = new ArrayList<>();
+        final RetVal<Integer> res = RetPipeline.start(" 12 ")
+                .map(String::trim)
+                .then((v) -> RetVal.ok(Integer.parseInt(v)))
+                .thenValidate((v) -> null)
+                .thenValidate((v) -> RetVoid.ok())
+                .thenRun(ran::add)
+                .map((v) -> v + 1)
+                .run();
+        assertTrue(res.isOk());
+        assertEquals(13, res.result());
+        assertEquals(List.of(12), ran);
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void start_manySteps() {
+        RetPipeline<Integer> pipeline = RetPipeline.start(0);
+        for (int i = 0; i < 20; i++) {
+            pipeline = pipeline.map((v) -> v + 1);
+        }
+        final RetVal<Integer> res = pipeline.run();
+        assertEquals(20, res.result());
+    }
+
+    @Test
+    void earlierPipeline_unchanged() {
+        final RetPipeline<String> base = RetPipeline.start(" 12 ").map(String::trim);
+        final RetPipeline<Integer> parsed = base.map(Integer::parseInt);
+        final RetVal<String> baseRes = base.run();
+        final RetVal<Integer> parsedRes = parsed.run();
+        assertTrue(baseRes.isOk());
+        assertEquals("12", baseRes.result());
+        assertTrue(parsedRes.isOk());
+        assertEquals(12, parsedRes.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void branch() {
+        RetPipeline<Integer> base = RetPipeline.start(0);
+        for (int i = 0; i < 10; i++) {
+            base = base.map((v) -> v + 1);
+        }
+        final RetPipeline<Integer> first = base.map((v) -> v * 2);
+        final RetPipeline<String> second = base.map((v) -> "v" + v).map((v) -> v + "!");
+        final RetPipeline<Integer> third = base.map((v) -> v * 3);
+        assertEquals(20, first.run().result());
+        assertEquals("v10!", second.run().result());
+        assertEquals(30, third.run().result());
+        assertEquals(10, base.run().result());
+        final RetPipeline<Integer> small = RetPipeline.start(1);
+        small.map((v) -> v + 1);
+        assertEquals(3, small.map((v) -> v + 2).run().result());
+    }
+
+    @Test
+    void then_problem() {
+        final LocalizedProblem problem = LocalizedProblem.from("p1");
+        final RetVal<String> res = RetPipeline.start("x")
+                .then((v) -> RetVal.<Integer>fromProblem(problem))
+                .map((v) -> {
+                    throw new IllegalStateException("should not be called");
+                })
+                .map(String::valueOf)
+                .run();
+        assertTrue(res.hasProblems());
+        assertEquals(List.of(problem), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void thenValidate_problem() {
+        final LocalizedProblem problem = LocalizedProblem.from("p1");
+        final RetVal<String> res = RetPipeline.start("x")
+                .thenValidate((v) -> RetVoid.fromProblem(problem))
+                .thenRun((v) -> {
+                    throw new IllegalStateException("should not be called");
+                })
+                .run();
+        assertTrue(res.hasProblems());
+        assertEquals(List.of(problem), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void map_nullResult() {
+        final RetPipeline<Object> pipeline = RetPipeline.start("x").map((v) -> null);
+        try {
+            pipeline.run();
+            fail("Did not throw NPE");
+        } catch (final NullPointerException e) {
+            // don't inspect exception
+        }
+    }
+
+    @Test
+    void from_ok() {
+        final RetVal<Integer> res = RetPipeline.from(RetVal.ok("abc"))
+                .map(String::length)
+                .run();
+        assertTrue(res.isOk());
+        assertEquals(3, res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void from_problem() {
+        final LocalizedProblem problem = LocalizedProblem.from("p1");
+        final RetVal<Integer> res = RetPipeline.from(RetVal.<String>fromProblem(problem))
+                .<String>map((v) -> {
+                    throw new IllegalStateException("should not be called");
+                })
+                .map(String::length)
+                .run();
+        assertTrue(res.hasProblems());
+        assertEquals(List.of(problem), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+        this.monitor.traceEnabled = true;
+    }
+
+    @AfterEach
+    void afterEach() {
+        this.monitor.tearDown();
+    }
+}
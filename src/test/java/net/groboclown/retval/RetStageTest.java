@@ -0,0 +1,203 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.LocalizedProblem;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetStageTest {
+    MockProblemMonitor monitor;
+
+    @Test
+    void of_completed() {
+        final CompletableFuture<RetVal<String>> future = new CompletableFuture<>();
+        final RetStage<Integer> stage = RetStage.of(future).map(String::length);
+        assertFalse(stage.toCompletableFuture().isDone());
+        future.complete(RetVal.ok("abc"));
+        final RetVal<Integer> res = stage.toCompletableFuture().join();
+        assertTrue(res.isOk());
+        assertEquals(3, res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void completed_problem_skipsFunctions() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final RetVal<Integer> res = RetStage.completed(RetVal.<String>fromProblem(p1))
+                .<Integer>then((v) -> {
+                    throw new IllegalStateException("should not be called");
+                })
+                .map((v) -> v + 1)
+                .thenValidate((v) -> {
+                    throw new IllegalStateException("should not be called");
+                })
+                .toCompletableFuture().join();
+        assertTrue(res.hasProblems());
+        assertEquals(List.of(p1), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void then_thenValidate_ok() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final RetVal<Integer> res = RetStage.completed(RetVal.ok("12"))
+                .then((v) -> RetVal.ok(Integer.parseInt(v)))
+                .thenValidate((v) -> v > 10 ? RetVoid.fromProblem(p1) : null)
+                .toCompletableFuture().join();
+        assertTrue(res.hasProblems());
+        assertEquals(List.of(p1), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void fromFuture_ok() {
+        final RetVal<String> res = RetStage.fromFuture(CompletableFuture.completedFuture("a"))
+                .toCompletableFuture().join();
+        assertTrue(res.isOk());
+        assertEquals("a", res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void fromFuture_exception() {
+        final IOException ex = new IOException("bad");
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        final RetVal<String> res = RetStage.fromFuture(future).toCompletableFuture().join();
+        assertTrue(res.hasProblems());
+        assertSame(
+                ex,
+                ((UnhandledExceptionProblem) res.validProblems().iterator().next())
+                        .getSourceException());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void fromFuture_null() {
+        final RetVal<String> res = RetStage.fromFuture(
+                CompletableFuture.<String>completedFuture(null)).toCompletableFuture().join();
+        assertTrue(res.hasProblems());
+        assertSame(
+                NullPointerException.class,
+                ((UnhandledExceptionProblem) res.validProblems().iterator().next())
+                        .getSourceException().getClass());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void exceptionsAsProblems_dependentException() {
+        final IllegalArgumentException ex = new IllegalArgumentException("bad");
+        final RetVal<Integer> res = RetStage.completed(RetVal.ok("a"))
+                .<Integer>map((v) -> {
+                    throw ex;
+                })
+                .exceptionsAsProblems()
+                .toCompletableFuture().join();
+        assertTrue(res.hasProblems());
+        assertSame(
+                ex,
+                ((UnhandledExceptionProblem) res.validProblems().iterator().next())
+                        .getSourceException());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void exceptionsAsProblems_ok() {
+        final RetVal<String> res = RetStage.completed(RetVal.ok("a"))
+                .exceptionsAsProblems()
+                .toCompletableFuture().join();
+        assertTrue(res.isOk());
+        assertEquals("a", res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void supplyAsync_thenAsync() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final RetVal<Integer> res = RetStage.supplyAsync(() -> RetVal.ok("abc"), executor)
+                    .thenAsync((v) -> RetStage.supplyAsync(
+                            () -> RetVal.ok(v.length()), executor))
+                    .toCompletableFuture().join();
+            assertTrue(res.isOk());
+            assertEquals(3, res.result());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void thenAsync_problem() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final RetVal<Integer> res = RetStage.completed(RetVal.<String>fromProblem(p1))
+                .<Integer>thenAsync((v) -> {
+                    throw new IllegalStateException("should not be called");
+                })
+                .toCompletableFuture().join();
+        assertTrue(res.hasProblems());
+        assertEquals(List.of(p1), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void zip_ok() {
+        final CompletableFuture<RetVal<Integer>> second = new CompletableFuture<>();
+        final RetStage<String> stage = RetStage.zip(
+                RetStage.completed(RetVal.ok("a")), RetStage.of(second), (a, b) -> a + b);
+        assertFalse(stage.toCompletableFuture().isDone());
+        second.complete(RetVal.ok(1));
+        final RetVal<String> res = stage.toCompletableFuture().join();
+        assertTrue(res.isOk());
+        assertEquals("a1", res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void joinAll_ok() {
+        final CompletableFuture<RetVal<String>> pending = new CompletableFuture<>();
+        final RetStage<List<String>> stage = RetStage.joinAll(List.of(
+                RetStage.completed(RetVal.ok("a")), RetStage.of(pending)));
+        assertFalse(stage.toCompletableFuture().isDone());
+        pending.complete(RetVal.ok("b"));
+        final RetVal<List<String>> res = stage.toCompletableFuture().join();
+        assertTrue(res.isOk());
+        assertEquals(List.of("a", "b"), res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void joinAll_problems() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final Problem p2 = LocalizedProblem.from("p2");
+        final RetVal<List<String>> res = RetStage.joinAll(List.of(
+                        RetStage.completed(RetVal.<String>fromProblem(p1)),
+                        RetStage.completed(RetVal.ok("a")),
+                        RetStage.completed(RetVal.<String>fromProblem(p2))))
+                .toCompletableFuture().join();
+        assertTrue(res.hasProblems());
+        assertEquals(List.of(p1, p2), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+        this.monitor.traceEnabled = true;
+    }
+
+    @AfterEach
+    void afterEach() {
+        this.monitor.tearDown();
+    }
+}
@@ -1,9 +1,22 @@
 // Released under the MIT License.
 package net.groboclown.retval;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
 import net.groboclown.retval.monitor.MockProblemMonitor;
 import net.groboclown.retval.problems.LocalizedProblem;
@@ -14,7 +27,9 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 
@@ -102,6 +117,54 @@ class RetTest {
         );
     }
 
+    @Test
+    void joinProblemMessages_builder() {
+        final StringBuilder out = new StringBuilder("x:");
+        assertSame(out, Ret.joinProblemMessages(out, ";", List.of(
+                LocalizedProblem.from("p1"),
+                LocalizedProblem.from("p2")
+        )));
+        assertEquals("x:p1;p2", out.toString());
+    }
+
+    @Test
+    void joinProblemMessages_appendable() throws IOException {
+        final StringWriter out = new StringWriter();
+        assertSame(out, Ret.joinProblemMessages(out, ";", List.of(
+                LocalizedProblem.from("p1"),
+                LocalizedProblem.from("p2")
+        )));
+        assertEquals("p1;p2", out.toString());
+    }
+
+    @Test
+    void joinProblemMessages_appendableError() {
+        final IOException err = new IOException("full");
+        final Writer out = new Writer() {
+            @Override
+            public void write(final char[] cbuf, final int off, final int len)
+                    throws IOException {
+                throw err;
+            }
+
+            @Override
+            public void flush() {
+                // Not used.
+            }
+
+            @Override
+            public void close() {
+                // Not used.
+            }
+        };
+        try {
+            Ret.joinProblemMessages(out, ";", List.of(LocalizedProblem.from("p1")));
+            fail("did not throw");
+        } catch (final IOException e) {
+            assertSame(err, e);
+        }
+    }
+
     @Test
     void joinRetProblemSets_nullInContainer() {
         final LocalizedProblem problem = LocalizedProblem.from("p1");
@@ -198,6 +261,133 @@ class RetTest {
         assertEquals(1, closer.closeCount);
     }
 
+    @Test
+    void closeWith_ok_closeException_stackless() {
+        final Exception ex = new Exception("closed");
+        final TestableCloseable closer = new TestableCloseable(ex);
+        UnhandledExceptionProblem.setStacklessCapture(3);
+        final RetVal<String> val;
+        try {
+            val = Ret.closeWith(closer, (x) -> RetVal.ok("x"));
+        } finally {
+            UnhandledExceptionProblem.setStacklessCapture(UnhandledExceptionProblem.FULL_CAPTURE);
+        }
+        final List<Problem> problems = new ArrayList<>(val.anyProblems());
+        assertEquals(1, problems.size());
+        final UnhandledExceptionProblem problem = (UnhandledExceptionProblem) problems.get(0);
+        assertTrue(problem.isStackless());
+        assertEquals("closed", problem.localMessage());
+        assertEquals(3, problem.getSourceException().getStackTrace().length);
+        assertEquals(1, closer.closeCount);
+    }
+
+    @Test
+    void closeWithAll_ok() {
+        final List<String> closed = new ArrayList<>();
+        final List<AutoCloseable> values = Arrays.asList(
+                () -> closed.add("a"), null, () -> closed.add("c"));
+        final RetVal<String> val = Ret.closeWithAll(values, (x) -> {
+            assertSame(values, x);
+            assertEquals(List.of(), closed);
+            return RetVal.ok("x");
+        });
+        assertEquals(List.of("c", "a"), closed);
+        assertTrue(val.isOk());
+        assertEquals("x", val.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void closeWithAll_linkedList() {
+        final List<String> closed = new ArrayList<>();
+        final List<AutoCloseable> values = new LinkedList<>();
+        for (int i = 0; i < 4; i++) {
+            final String name = "v" + i;
+            values.add(() -> closed.add(name));
+        }
+        final RetVal<String> val = Ret.closeWithAll(values, (x) -> RetVal.ok("x"));
+        assertEquals(List.of("v3", "v2", "v1", "v0"), closed);
+        assertTrue(val.isOk());
+        assertEquals("x", val.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void closeWithAll_nullResult() {
+        final TestableCloseable closer = new TestableCloseable();
+        final RetVal<String> val = Ret.closeWithAll(List.of(closer), (x) -> null);
+        assertEquals(1, closer.closeCount);
+        final List<Problem> problems = new ArrayList<>(val.anyProblems());
+        assertEquals(1, problems.size());
+        assertSame(
+                NullPointerException.class,
+                ((UnhandledExceptionProblem) problems.get(0)).getSourceException().getClass());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void closeWithAll_problem_closeExceptions() {
+        final LocalizedProblem problem = LocalizedProblem.from("p1");
+        final Exception ex1 = new Exception("1");
+        final Exception ex2 = new Exception("2");
+        final TestableCloseable closer1 = new TestableCloseable(ex1);
+        final TestableCloseable closer2 = new TestableCloseable();
+        final TestableCloseable closer3 = new TestableCloseable(ex2);
+        final RetVal<String> val = Ret.closeWithAll(
+                List.of(closer1, closer2, closer3), (x) -> RetVal.fromProblem(problem));
+        assertEquals(1, closer1.closeCount);
+        assertEquals(1, closer2.closeCount);
+        assertEquals(1, closer3.closeCount);
+        final List<Problem> problems = new ArrayList<>(val.anyProblems());
+        assertEquals(3, problems.size());
+        assertSame(problem, problems.get(0));
+        assertSame(ex2, ((UnhandledExceptionProblem) problems.get(1)).getSourceException());
+        assertSame(ex1, ((UnhandledExceptionProblem) problems.get(2)).getSourceException());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void closeWithAll_funcException() {
+        final IllegalStateException ex = new IllegalStateException();
+        final TestableCloseable closer = new TestableCloseable();
+        final RetVal<String> val = Ret.closeWithAll(List.of(closer), (x) -> {
+            throw ex;
+        });
+        assertEquals(1, closer.closeCount);
+        final List<Problem> problems = new ArrayList<>(val.anyProblems());
+        assertEquals(1, problems.size());
+        assertSame(ex, ((UnhandledExceptionProblem) problems.get(0)).getSourceException());
+    }
+
+    @Test
+    void closeWithAll_funcThreadDeath() {
+        final ThreadDeath err = new ThreadDeath();
+        final TestableCloseable closer = new TestableCloseable();
+        try {
+            Ret.closeWithAll(List.of(closer), (x) -> {
+                throw err;
+            });
+            fail("Did not throw ThreadDeath");
+        } catch (final ThreadDeath e) {
+            assertSame(err, e);
+        }
+        assertEquals(0, closer.closeCount);
+    }
+
+    @Test
+    void closeWithAll_closeThreadDeath() {
+        final ThreadDeath err = new ThreadDeath();
+        final TestableCloseable closer = new TestableCloseable(err);
+        final RetVal<String> ret = RetVal.ok("x");
+        try {
+            Ret.closeWithAll(List.of(closer), (x) -> ret);
+            fail("Did not throw ThreadDeath");
+        } catch (final ThreadDeath e) {
+            assertSame(err, e);
+        }
+        assertEquals(1, closer.closeCount);
+    }
+
     @Test
     void closeWith_problem_closeException() {
         // the auto-close throws Exception.
@@ -394,6 +584,304 @@ class RetTest {
     }
 
 
+    @Test
+    void zip_ok() {
+        final RetVal<String> res = Ret.zip(RetVal.ok("a"), RetVal.ok(2), (a, b) -> a + b);
+        assertTrue(res.isOk());
+        assertEquals("a2", res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void zip_firstProblem() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final RetVal<String> res = Ret.zip(
+                RetVal.<String>fromProblem(p1), RetVal.ok(2), (a, b) -> {
+                    throw new IllegalStateException("should not be called");
+                });
+        assertFalse(res.isOk());
+        assertEquals(List.of(p1), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void zip_bothProblems() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final Problem p2 = LocalizedProblem.from("p2");
+        final RetVal<String> res = Ret.zip(
+                RetVal.<String>fromProblem(p1), RetVal.<Integer>fromProblem(p2), (a, b) -> a + b);
+        assertFalse(res.isOk());
+        assertEquals(List.of(p1, p2), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void zip_secondProblem() {
+        final Problem p2 = LocalizedProblem.from("p2");
+        final RetVal<String> res = Ret.zip(
+                RetVal.ok("a"), RetVal.<Integer>fromProblem(p2), (a, b) -> a + b);
+        assertFalse(res.isOk());
+        assertEquals(List.of(p2), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void sequence_empty() {
+        final RetVal<List<String>> res = Ret.sequence(List.of());
+        assertTrue(res.isOk());
+        assertEquals(List.of(), res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void sequence_ok() {
+        final RetVal<List<String>> res = Ret.sequence(List.of(RetVal.ok("a"), RetVal.ok("b")));
+        assertTrue(res.isOk());
+        assertEquals(List.of("a", "b"), res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void sequence_collectAll() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final Problem p2 = LocalizedProblem.from("p2");
+        final RetVal<List<String>> res = Ret.sequence(List.of(
+                RetVal.fromProblem(p1), RetVal.ok("b"), RetVal.fromProblem(p2)));
+        assertFalse(res.isOk());
+        assertEquals(List.of(p1, p2), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void sequence_failFast() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final Problem p2 = LocalizedProblem.from("p2");
+        final RetVal<List<String>> res = Ret.sequence(List.of(
+                RetVal.ok("a"), RetVal.fromProblem(p1), RetVal.ok("b"), RetVal.fromProblem(p2)),
+                FailurePolicy.FAIL_FAST);
+        assertFalse(res.isOk());
+        assertEquals(List.of(p1), res.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void traverse_ok() {
+        final RetVal<List<Integer>> res = Ret.traverse(
+                List.of("a", "bc"), (v) -> RetVal.ok(v.length()));
+        assertTrue(res.isOk());
+        assertEquals(List.of(1, 2), res.result());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void traverse_collectAll() {
+        final List<String> called = new ArrayList<>();
+        final RetVal<List<Integer>> res = Ret.traverse(List.of("a", "", "b", ""), (v) -> {
+            called.add(v);
+            return v.isEmpty()
+                    ? RetVal.fromProblem(LocalizedProblem.from("empty " + called.size()))
+                    : RetVal.ok(v.length());
+        });
+        assertFalse(res.isOk());
+        assertEquals("empty 2, empty 4", Ret.joinProblemMessages(", ", res.anyProblems()));
+        assertEquals(List.of("a", "", "b", ""), called);
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void traverse_failFast() {
+        final List<String> called = new ArrayList<>();
+        final RetVal<List<Integer>> res = Ret.traverse(List.of("a", "", "b", ""), (v) -> {
+            called.add(v);
+            return v.isEmpty()
+                    ? RetVal.fromProblem(LocalizedProblem.from("empty " + called.size()))
+                    : RetVal.ok(v.length());
+        }, FailurePolicy.FAIL_FAST);
+        assertFalse(res.isOk());
+        assertEquals("empty 2", Ret.joinProblemMessages(", ", res.anyProblems()));
+        assertEquals(List.of("a", ""), called);
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void forkAll_ok() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<RetVal<Integer>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                final int value = i;
+                tasks.add(() -> RetVal.ok(value));
+            }
+            final RetVal<List<Integer>> res = Ret.forkAll(tasks, executor);
+            assertTrue(res.isOk());
+            assertEquals(20, res.result().size());
+            assertEquals(7, res.result().get(7));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void forkAll_collectAll() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final Problem p1 = LocalizedProblem.from("p1");
+        final IllegalStateException ex = new IllegalStateException("bad");
+        try {
+            final RetVal<List<Integer>> res = Ret.forkAll(List.of(
+                    () -> RetVal.fromProblem(p1),
+                    () -> RetVal.ok(1),
+                    () -> {
+                        throw ex;
+                    }), executor);
+            assertFalse(res.isOk());
+            final List<Problem> problems = new ArrayList<>(res.anyProblems());
+            assertEquals(2, problems.size());
+            assertSame(p1, problems.get(0));
+            assertSame(ex, ((UnhandledExceptionProblem) problems.get(1)).getSourceException());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void forkAll_nullResult() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final RetVal<List<String>> res = Ret.forkAll(List.of(
+                    () -> RetVal.ok("a"),
+                    () -> null), executor);
+            assertFalse(res.isOk());
+            final List<Problem> problems = new ArrayList<>(res.anyProblems());
+            assertEquals(1, problems.size());
+            assertSame(
+                    NullPointerException.class,
+                    ((UnhandledExceptionProblem) problems.get(0)).getSourceException().getClass());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void forkAll_failFast() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final Problem p1 = LocalizedProblem.from("p1");
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            final RetVal<List<Integer>> res = Ret.forkAll(List.of(
+                    () -> RetVal.ok(1),
+                    () -> {
+                        started.countDown();
+                        try {
+                            new CountDownLatch(1).await();
+                        } catch (final InterruptedException e) {
+                            interrupted.countDown();
+                            throw e;
+                        }
+                        return RetVal.ok(2);
+                    },
+                    () -> {
+                        started.await();
+                        return RetVal.fromProblem(p1);
+                    }), executor, FailurePolicy.FAIL_FAST);
+            assertFalse(res.isOk());
+            assertEquals(List.of(p1), res.anyProblems());
+            assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void forkAll_rejected() throws InterruptedException {
+        // One thread and no queue, so the second task is rejected while the first runs.
+        final ExecutorService executor = new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            final RetVal<List<Integer>> res = Ret.forkAll(List.of(
+                    () -> {
+                        started.countDown();
+                        try {
+                            new CountDownLatch(1).await();
+                        } catch (final InterruptedException e) {
+                            interrupted.countDown();
+                            throw e;
+                        }
+                        return RetVal.ok(1);
+                    },
+                    () -> RetVal.ok(2)), executor);
+            final List<Problem> problems = new ArrayList<>(res.anyProblems());
+            assertEquals(1, problems.size());
+            assertSame(
+                    RejectedExecutionException.class,
+                    ((UnhandledExceptionProblem) problems.get(0)).getSourceException().getClass());
+            // The first task may be cancelled before it starts; if it started, then it was
+            // interrupted.
+            if (started.await(1, TimeUnit.SECONDS)) {
+                assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void forkAll_callerInterrupted() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        final AtomicBoolean ran = new AtomicBoolean(false);
+        final CountDownLatch running = new CountDownLatch(1);
+        try {
+            // Keep the executor busy, so the submitted task is pending.
+            executor.submit(() -> {
+                running.countDown();
+                new CountDownLatch(1).await();
+                return null;
+            });
+            running.await();
+            Thread.currentThread().interrupt();
+            final RetVal<List<Integer>> res = Ret.forkAll(List.of(() -> {
+                ran.set(true);
+                return RetVal.ok(1);
+            }), executor);
+            assertTrue(Thread.interrupted());
+            assertFalse(res.isOk());
+            final Problem problem = res.anyProblems().iterator().next();
+            assertSame(
+                    InterruptedException.class,
+                    ((UnhandledExceptionProblem) problem).getSourceException().getClass());
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertFalse(ran.get());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void forkAll_error() {
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        final StackOverflowError err = new StackOverflowError();
+        try {
+            Ret.<Integer>forkAll(List.of(() -> {
+                throw err;
+            }), executor);
+            fail("Did not throw error");
+        } catch (final StackOverflowError e) {
+            assertSame(err, e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @BeforeEach
     void beforeEach() {
         this.monitor = MockProblemMonitor.setup();
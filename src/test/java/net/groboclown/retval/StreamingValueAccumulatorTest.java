@@ -0,0 +1,220 @@
+// Released under the MIT License.
+package net.groboclown.retval;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.LocalizedProblem;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingValueAccumulatorTest {
+    MockProblemMonitor monitor;
+
+    @Test
+    void to_values() {
+        final List<String> sink = new ArrayList<>();
+        final StreamingValueAccumulator<String> accumulator =
+                StreamingValueAccumulator.<String>to(sink::add)
+                        .with(RetVal.ok("a"))
+                        .with(RetNullable.ok(null))
+                        .withValue("b");
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+        assertEquals(3, accumulator.getCount());
+        assertEquals(3, sink.size());
+        final RetVal<Long> count = accumulator.thenCount();
+        assertTrue(count.isOk());
+        assertEquals(3L, count.result());
+        assertTrue(accumulator.then().isOk());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void to_problems() throws IOException {
+        final LocalizedProblem p1 = LocalizedProblem.from("p1");
+        final LocalizedProblem p2 = LocalizedProblem.from("p2");
+        final LocalizedProblem p3 = LocalizedProblem.from("p3");
+        final LocalizedProblem p4 = LocalizedProblem.from("p4");
+        final List<String> sink = new ArrayList<>();
+        final StreamingValueAccumulator<String> accumulator =
+                StreamingValueAccumulator.<String>to(sink::add)
+                        .with(RetVal.fromProblem(p1))
+                        .with(RetNullable.fromProblem(p2))
+                        .with(p3)
+                        .with(List.of(p4))
+                        .withValue("a");
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+        assertEquals(List.of("a"), sink);
+        assertTrue(accumulator.hasProblems());
+        assertTrue(accumulator.isProblem());
+        assertFalse(accumulator.isOk());
+        assertEquals(List.of(p1, p2, p3, p4), accumulator.anyProblems());
+        assertEquals(List.of(p1, p2, p3, p4), accumulator.validProblems());
+        assertEquals("p1;p2;p3;p4", accumulator.debugProblems(";"));
+        final StringBuilder appended = new StringBuilder();
+        accumulator.appendProblems(appended, ";");
+        assertEquals("p1;p2;p3;p4", appended.toString());
+        final List<Problem> joined = new ArrayList<>();
+        accumulator.joinProblemsWith(joined);
+        assertEquals(List.of(p1, p2, p3, p4), joined);
+        assertSame(accumulator.getCollector().anyProblems().iterator().next(), p1);
+
+        final RetVal<Long> count = accumulator.thenCount();
+        assertEquals(List.of(p1, p2, p3, p4), count.anyProblems());
+        assertEquals(List.of(p1, p2, p3, p4), accumulator.then().anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void withEach() {
+        final LocalizedProblem p1 = LocalizedProblem.from("p1");
+        final List<Integer> sink = new ArrayList<>();
+        final StreamingValueAccumulator<Integer> accumulator = StreamingValueAccumulator
+                .<Integer>to(sink::add)
+                .withEach(List.of("1", "x", "3"), (v) -> "x".equals(v)
+                        ? RetVal.fromProblem(p1)
+                        : RetVal.ok(Integer.parseInt(v)))
+                .withEach(RetVal.ok(List.of("4")), (v) -> RetVal.ok(Integer.parseInt(v)));
+        assertEquals(List.of(1, 3, 4), sink);
+        assertEquals(List.of(p1), accumulator.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void withEach_inputProblems() {
+        final LocalizedProblem p1 = LocalizedProblem.from("p1");
+        final List<Integer> sink = new ArrayList<>();
+        final StreamingValueAccumulator<Integer> accumulator = StreamingValueAccumulator
+                .<Integer>to(sink::add)
+                .withEach(RetVal.<List<String>>fromProblem(p1), (v) -> RetVal.ok(1));
+        assertEquals(List.of(), sink);
+        assertEquals(List.of(p1), accumulator.anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void toQueue() {
+        final BlockingQueue<String> queue = new ArrayBlockingQueue<>(4);
+        final StreamingValueAccumulator<String> accumulator =
+                StreamingValueAccumulator.<String>toQueue(queue)
+                        .withValue("a")
+                        .withValue("b");
+        assertTrue(accumulator.isOk());
+        assertEquals(List.of("a", "b"), new ArrayList<>(queue));
+    }
+
+    @Test
+    void toQueue_null() {
+        final BlockingQueue<String> queue = new ArrayBlockingQueue<>(4);
+        final StreamingValueAccumulator<String> accumulator =
+                StreamingValueAccumulator.<String>toQueue(queue)
+                        .withValue(null)
+                        .withValue("a");
+        assertEquals(0, accumulator.getCount());
+        assertEquals(List.of(), new ArrayList<>(queue));
+        assertEquals(1, accumulator.anyProblems().size());
+        assertTrue(
+                ((UnhandledExceptionProblem) accumulator.anyProblems().iterator().next())
+                        .getSourceException() instanceof NullPointerException);
+    }
+
+    @Test
+    void toQueue_interrupted() {
+        final BlockingQueue<String> queue = new ArrayBlockingQueue<>(1);
+        final StreamingValueAccumulator<String> accumulator =
+                StreamingValueAccumulator.toQueue(queue);
+        accumulator.withValue("a");
+        Thread.currentThread().interrupt();
+        accumulator.withValue("b");
+        // Clears the flag.
+        assertTrue(Thread.interrupted());
+        assertEquals(1, accumulator.getCount());
+        assertTrue(
+                ((UnhandledExceptionProblem) accumulator.anyProblems().iterator().next())
+                        .getSourceException() instanceof InterruptedException);
+    }
+
+    @Test
+    void toWriter() {
+        final StringWriter writer = new StringWriter();
+        final StreamingValueAccumulator<Integer> accumulator =
+                StreamingValueAccumulator.<Integer>toWriter(writer, (v) -> "n" + v)
+                        .withValue(1)
+                        .withValue(2);
+        assertTrue(accumulator.isOk());
+        assertEquals("n1\nn2\n", writer.toString());
+    }
+
+    @Test
+    void toWriter_failure() {
+        final IOException ex = new IOException("closed");
+        final int[] writes = {0};
+        final Writer writer = new Writer() {
+            @Override
+            public void write(final char[] cbuf, final int off, final int len)
+                    throws IOException {
+                writes[0]++;
+                throw ex;
+            }
+
+            @Override
+            public void flush() {
+                // do nothing
+            }
+
+            @Override
+            public void close() {
+                // do nothing
+            }
+        };
+        final StreamingValueAccumulator<String> accumulator =
+                StreamingValueAccumulator.<String>toWriter(writer, (v) -> v)
+                        .withValue("a")
+                        .withValue("b");
+        // The broken writer is not called again.
+        assertEquals(1, writes[0]);
+        assertEquals(0, accumulator.getCount());
+        assertSame(
+                ex,
+                ((UnhandledExceptionProblem) accumulator.anyProblems().iterator().next())
+                        .getSourceException());
+    }
+
+    @Test
+    void to_error() {
+        final StackOverflowError err = new StackOverflowError();
+        final StreamingValueAccumulator<String> accumulator = StreamingValueAccumulator.to(
+                (v) -> {
+                    throw err;
+                });
+        try {
+            accumulator.withValue("a");
+            throw new IllegalStateException("did not throw error");
+        } catch (final StackOverflowError e) {
+            assertSame(err, e);
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+        this.monitor.traceEnabled = true;
+    }
+
+    @AfterEach
+    void afterEach() {
+        this.monitor.tearDown();
+    }
+}
@@ -1,6 +1,7 @@
 // Released under the MIT License.
 package net.groboclown.retval;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -340,6 +341,34 @@ class ValueAccumulatorTest {
         assertEquals(List.of(), accumulator.anyProblems());
     }
 
+    @Test
+    void withEach_Collection_maxFailures() {
+        final LocalizedProblem problem = LocalizedProblem.from("b");
+        final List<String> calledWith = new ArrayList<>();
+        final ValueAccumulator<String> accumulator = ValueAccumulator.<String>from()
+                .withEach(List.of("a", "b", "c", "d"), (v) -> {
+                    calledWith.add(v);
+                    return "b".equals(v) ? RetVal.fromProblem(problem) : RetVal.ok(v);
+                }, 1);
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+        assertEquals(List.of("a", "b"), calledWith);
+        assertEquals(List.of("a"), new ArrayList<>(accumulator.getValues()));
+        assertEquals(List.of(problem), accumulator.anyProblems());
+        assertEquals(2, accumulator.getSkippedCount());
+    }
+
+    @Test
+    void withEach_Collection_maxFailures_invalid() {
+        final ValueAccumulator<String> accumulator = ValueAccumulator.from();
+        try {
+            accumulator.withEach(List.of("a"), RetVal::ok, -1);
+            fail("Did not throw IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("maxFailures must be at least 1", e.getMessage());
+        }
+        assertEquals(0, accumulator.getSkippedCount());
+    }
+
     @Test
     void withEach_Collection_problem() {
         final List<String> calledWith = new ArrayList<>();
@@ -408,6 +437,40 @@ class ValueAccumulatorTest {
         assertEquals(List.of(problem), accumulator.anyProblems());
     }
 
+    @Test
+    void withEach_RetVal_maxFailures() {
+        final LocalizedProblem problem = LocalizedProblem.from("b");
+        final List<String> calledWith = new ArrayList<>();
+        final ValueAccumulator<String> accumulator = ValueAccumulator.<String>from()
+                .withEach(RetVal.ok(List.of("a", "b", "c", "d")), (v) -> {
+                    calledWith.add(v);
+                    return "b".equals(v) ? RetVal.fromProblem(problem) : RetVal.ok(v);
+                }, 1);
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+        assertEquals(List.of("a", "b"), calledWith);
+        assertEquals(List.of("a"), new ArrayList<>(accumulator.getValues()));
+        assertEquals(List.of(problem), accumulator.anyProblems());
+        assertEquals(2, accumulator.getSkippedCount());
+    }
+
+    @Test
+    void withEach_RetVal_maxFailures_withProblem() {
+        final LocalizedProblem problem = LocalizedProblem.from("x");
+        final ValueAccumulator<String> accumulator = ValueAccumulator.<String>from()
+                .withEach(RetVal.<List<String>>fromProblem(problem), (v) -> {
+                    throw new IllegalStateException("should not be called");
+                }, 1);
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+        assertEquals(List.of(problem), accumulator.anyProblems());
+        assertEquals(0, accumulator.getSkippedCount());
+        try {
+            accumulator.withEach(RetVal.ok(List.of("a")), RetVal::ok, 0);
+            fail("Did not throw IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("maxFailures must be at least 1", e.getMessage());
+        }
+    }
+
     @Test
     void then_ok() {
         final ValueAccumulator<String> accumulator = ValueAccumulator.from();
@@ -541,6 +604,15 @@ class ValueAccumulatorTest {
         assertEquals(List.of(problem), accumulator.validProblems());
     }
 
+    @Test
+    void appendProblems() throws IOException {
+        final ValueAccumulator<String> accumulator = ValueAccumulator.from(
+                LocalizedProblem.from("x"), LocalizedProblem.from("y"));
+        final StringBuilder out = new StringBuilder();
+        accumulator.appendProblems(out, ";");
+        assertEquals("x;y", out.toString());
+    }
+
     @Test
     void joinProblemsWith() {
         final List<Problem> joined = new ArrayList<>();
@@ -1,6 +1,8 @@
 // Released under the MIT License.
 package net.groboclown.retval;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 import net.groboclown.retval.problems.LocalizedProblem;
@@ -294,6 +296,18 @@ class ValueBuilderTest {
         assertEquals("p1;p2", builder.debugProblems(";"));
     }
 
+    @Test
+    void appendProblems() throws IOException {
+        final LocalizedProblem problem1 = LocalizedProblem.from("p1");
+        final LocalizedProblem problem2 = LocalizedProblem.from("p2");
+        final ValueBuilder<String> builder = ValueBuilder
+                .from("x")
+                .with(RetVoid.fromProblem(problem1, problem2));
+        final StringWriter out = new StringWriter();
+        builder.appendProblems(out, ";");
+        assertEquals("p1;p2", out.toString());
+    }
+
     @Test
     void joinProblemsWith() {
         final LocalizedProblem problem1 = LocalizedProblem.from("p1");
@@ -1,6 +1,7 @@
 // Released under the MIT License. 
 package net.groboclown.retval;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import net.groboclown.retval.problems.LocalizedProblem;
@@ -30,7 +31,7 @@ class WarningValTest {
     }
 
     @Test
-    void problems() {
+    void problems() throws IOException {
         final LocalizedProblem problem1 = LocalizedProblem.from("p1");
         final LocalizedProblem problem2 = LocalizedProblem.from("p2");
         final WarningVal<String> val = WarningVal.from("x",
@@ -42,6 +43,9 @@ class WarningValTest {
         assertTrue(val.hasProblems());
         assertTrue(val.isProblem());
         assertEquals("p1;p2", val.debugProblems(";"));
+        final StringBuilder appended = new StringBuilder();
+        val.appendProblems(appended, ";");
+        assertEquals("p1;p2", appended.toString());
         final List<Problem> joined = new ArrayList<>();
         val.joinProblemsWith(joined);
         assertEquals(List.of(problem1, problem2), joined);
@@ -0,0 +1,254 @@
+// Released under the MIT License.
+package net.groboclown.retval.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import net.groboclown.retval.ProblemContainer;
+import net.groboclown.retval.RetNullable;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.FileProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigurationTest {
+    MockProblemMonitor monitor;
+
+    @Test
+    void load() throws IOException {
+        final Path dir = Files.createTempDirectory("config");
+        final Path file = dir.resolve("a.properties");
+        try {
+            Files.write(file, "a = 1\nb: \\u00e9\n".getBytes(StandardCharsets.UTF_8));
+            final RetVal<Configuration> res = Configuration.load(file);
+            assertTrue(res.isOk());
+            assertEquals(file.toString(), res.result().getSource());
+            assertEquals(2, res.result().size());
+            assertEquals("1", res.result().get("a"));
+            assertEquals("\u00e9", res.result().get("b"));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    void load_missing() {
+        final Path file = Paths.get("does-not-exist.properties");
+        final RetVal<Configuration> res = Configuration.load(file);
+        assertEquals(1, res.anyProblems().size());
+        assertSame(file, ((FileProblem) res.anyProblems().iterator().next()).getPath());
+    }
+
+    @Test
+    void read_ioError() {
+        final Reader reader = new Reader() {
+            @Override
+            public int read(final char[] cbuf, final int off, final int len) throws IOException {
+                throw new IOException("broken");
+            }
+
+            @Override
+            public void close() {
+                // Nothing to close.
+            }
+        };
+        final RetVal<Configuration> res = Configuration.read(reader, "src");
+        assertEquals(1, res.anyProblems().size());
+        assertEquals("src: broken", res.anyProblems().iterator().next().toString());
+    }
+
+    @Test
+    void read_badEscape() {
+        final RetVal<Configuration> res =
+                Configuration.read(new StringReader("a = \\uzzzz"), "src");
+        assertEquals(1, res.anyProblems().size());
+        assertTrue(res.anyProblems().iterator().next().toString()
+                .startsWith("src: invalid properties text: "));
+    }
+
+    @Test
+    void from_copiesProperties() {
+        final Properties props = new Properties();
+        props.setProperty("a", "1");
+        final Configuration config = Configuration.from(props, "src");
+        props.setProperty("a", "2");
+        props.setProperty("b", "3");
+        assertEquals("1", config.get("a"));
+        assertNull(config.get("b"));
+    }
+
+    @Test
+    void getKeysWithPrefix() {
+        final Configuration config = config(
+                "project.a.name = A\nproject.a.url = u\nproject.b.name = B\nprojects = a,b\n");
+        assertEquals(
+                List.of("project.a.name", "project.a.url"),
+                config.getKeysWithPrefix("project.a."));
+        assertEquals(
+                List.of("project.a.name", "project.a.url", "project.b.name"),
+                config.getKeysWithPrefix("project."));
+        assertEquals(List.of("projects"), config.getKeysWithPrefix("projects"));
+        assertEquals(List.of(), config.getKeysWithPrefix("user."));
+        assertEquals(4, config.getKeysWithPrefix("").size());
+    }
+
+    @Test
+    void resolve() {
+        final Configuration config = config("a = x\n");
+        final RetNullable<String> found = config.resolve("a");
+        assertTrue(found.isOk());
+        assertEquals("x", found.result());
+        final RetNullable<String> missing = config.resolve("b");
+        assertTrue(missing.isOk());
+        assertNull(missing.result());
+    }
+
+    @Test
+    void require() {
+        final Configuration config = config("a = x\nblank = \n");
+        final RetVal<String> found = config.require("a");
+        assertTrue(found.isOk());
+        assertEquals("x", found.result());
+        assertEquals(
+                List.of("src: no `b` property"),
+                messages(config.require("b")));
+        assertEquals(
+                List.of("src: `blank` value is blank"),
+                messages(config.require("blank")));
+    }
+
+    @Test
+    void resolveInt() {
+        final Configuration config = config("a = 12 \nbad = x\n");
+        final RetNullable<Integer> found = config.resolveInt("a");
+        assertTrue(found.isOk());
+        assertEquals(12, found.result());
+        final RetNullable<Integer> missing = config.resolveInt("b");
+        assertTrue(missing.isOk());
+        assertNull(missing.result());
+        assertEquals(
+                List.of("src: `bad` is not a number (x)"),
+                messages(config.resolveInt("bad")));
+    }
+
+    @Test
+    void requireInt() {
+        final Configuration config = config("a = 12\nbad = x\n");
+        final RetVal<Integer> found = config.requireInt("a");
+        assertTrue(found.isOk());
+        assertEquals(12, found.result());
+        assertEquals(List.of("src: no `b` property"), messages(config.requireInt("b")));
+        assertEquals(
+                List.of("src: `bad` is not a number (x)"),
+                messages(config.requireInt("bad")));
+    }
+
+    @Test
+    void intCache() {
+        final Configuration config = config("a = 1234\nbad = x\n");
+        final RetVal<Integer> first = config.requireInt("a");
+        final RetNullable<Integer> second = config.resolveInt("a");
+        assertTrue(first.isOk());
+        assertTrue(second.isOk());
+        assertSame(first.result(), second.result());
+        final RetVal<Integer> bad1 = config.requireInt("bad");
+        final RetNullable<Integer> bad2 = config.resolveInt("bad");
+        assertSame(
+                bad1.anyProblems().iterator().next(),
+                bad2.anyProblems().iterator().next());
+    }
+
+    @Test
+    void resolveUrl() {
+        final Configuration config = config("a = http://example.com/\nbad = x\n");
+        final RetNullable<URL> found = config.resolveUrl("a");
+        assertTrue(found.isOk());
+        assertEquals("http://example.com/", found.result().toString());
+        final RetNullable<URL> missing = config.resolveUrl("b");
+        assertTrue(missing.isOk());
+        assertNull(missing.result());
+        final List<String> bad = messages(config.resolveUrl("bad"));
+        assertEquals(1, bad.size());
+        assertTrue(bad.get(0).startsWith("src: `bad` is not a valid URL: "));
+    }
+
+    @Test
+    void requireUrl() {
+        final Configuration config = config("a = http://example.com/\nbad = x\n");
+        final RetVal<URL> found = config.requireUrl("a");
+        assertTrue(found.isOk());
+        final RetNullable<URL> again = config.resolveUrl("a");
+        assertTrue(again.isOk());
+        assertSame(found.result(), again.result());
+        assertEquals(List.of("src: no `b` property"), messages(config.requireUrl("b")));
+        assertEquals(1, messages(config.requireUrl("bad")).size());
+    }
+
+    @Test
+    void changedKeys() {
+        final Configuration previous = config("a = 1\nb = 2\nc = 3\ne = 5\n");
+        final Configuration next = config("b = 2\nc = 4\nd = 4\ne = 5\nf = 6\n");
+        assertEquals(
+                Set.of("a", "c", "d", "f"),
+                Configuration.changedKeys(previous, next));
+        assertEquals(Set.of(), Configuration.changedKeys(previous, previous));
+    }
+
+    @Test
+    void reuseParsedValues() {
+        final Configuration previous = config("a = 1234\nb = 5678\nc = x\n");
+        final RetVal<Integer> a1 = previous.requireInt("a");
+        final RetVal<Integer> b1 = previous.requireInt("b");
+        final RetVal<URL> c1 = previous.requireUrl("c");
+        final Configuration next = config("a = 1234\nb = 5678\nc = x\n");
+        next.reuseParsedValues(previous, Set.of("b"));
+        final RetVal<Integer> a2 = next.requireInt("a");
+        final RetVal<Integer> b2 = next.requireInt("b");
+        final RetVal<URL> c2 = next.requireUrl("c");
+        assertTrue(a1.isOk());
+        assertTrue(a2.isOk());
+        assertTrue(b1.isOk());
+        assertTrue(b2.isOk());
+        assertSame(a1.result(), a2.result());
+        assertNotSame(b1.result(), b2.result());
+        assertSame(c1.anyProblems().iterator().next(), c2.anyProblems().iterator().next());
+    }
+
+    static Configuration config(final String text) {
+        final RetVal<Configuration> res = Configuration.read(new StringReader(text), "src");
+        assertTrue(res.isOk());
+        return res.result();
+    }
+
+    static List<String> messages(final ProblemContainer res) {
+        final List<String> ret = new ArrayList<>();
+        res.anyProblems().forEach((problem) -> ret.add(problem.toString()));
+        return ret;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+    }
+
+    @AfterEach
+    void afterEach() {
+        final List<?> neverObserved = this.monitor.getNeverObserved();
+        this.monitor.tearDown();
+        assertEquals(List.of(), neverObserved);
+    }
+}
@@ -0,0 +1,243 @@
+// Released under the MIT License.
+package net.groboclown.retval.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemContainer;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.FileProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReloadableConfigurationTest {
+    MockProblemMonitor monitor;
+    Path directory;
+    Path file;
+
+    @Test
+    void watch_noDirectory() {
+        final Path missing = this.directory.resolve("missing").resolve("a.properties");
+        final RetVal<ReloadableConfiguration> res = ReloadableConfiguration.watch(missing);
+        assertEquals(1, res.anyProblems().size());
+        assertSame(missing, ((FileProblem) res.anyProblems().iterator().next()).getPath());
+    }
+
+    @Test
+    void current_noValidators() throws IOException {
+        write("a = 1\n");
+        try (ReloadableConfiguration config = watch()) {
+            final RetVal<Configuration> current = config.current();
+            assertTrue(current.isOk());
+            assertEquals("1", current.result().get("a"));
+        }
+    }
+
+    @Test
+    void addValidator() throws IOException {
+        write("a = 1\nb = x\n");
+        try (ReloadableConfiguration config = watch()) {
+            final AtomicInteger calls = new AtomicInteger();
+            assertSame(config, config.addValidator(List.of("b"), (c) -> {
+                calls.incrementAndGet();
+                return c.requireInt("b");
+            }));
+            assertEquals(1, calls.get());
+            assertEquals(
+                    List.of(this.file + ": `b` is not a number (x)"),
+                    messages(config.current()));
+        }
+    }
+
+    @Test
+    void reload_onlyAffectedValidators() throws IOException {
+        write("a = 1\nb = 2\nc = 3\n");
+        try (ReloadableConfiguration config = watch()) {
+            final AtomicInteger aCalls = new AtomicInteger();
+            final AtomicInteger bcCalls = new AtomicInteger();
+            config.addValidator(List.of("a"), (c) -> {
+                aCalls.incrementAndGet();
+                return c.requireInt("a");
+            });
+            config.addValidator(List.of("b", "c"), (c) -> {
+                bcCalls.incrementAndGet();
+                return c.requireInt("b").thenValidate((v) -> c.requireInt("c"));
+            });
+
+            write("a = 1\nb = 2\nc = z\n");
+            assertEquals(
+                    List.of(this.file + ": `c` is not a number (z)"),
+                    messages(config.reload()));
+            assertEquals(1, aCalls.get());
+            assertEquals(2, bcCalls.get());
+
+            write("a = x\nb = 2\n");
+            assertEquals(
+                    List.of(
+                            this.file + ": `a` is not a number (x)",
+                            this.file + ": no `c` property"),
+                    messages(config.reload()));
+            assertEquals(2, aCalls.get());
+            assertEquals(3, bcCalls.get());
+
+            write("a = 1\nb = 2\nd = 4\n");
+            assertEquals(
+                    List.of(this.file + ": no `c` property"),
+                    messages(config.reload()));
+            assertEquals(3, aCalls.get());
+            assertEquals(3, bcCalls.get());
+        }
+    }
+
+    @Test
+    void reload_reusesParsedValues() throws IOException {
+        write("a = 1234\nb = 5678\n");
+        try (ReloadableConfiguration config = watch()) {
+            final RetVal<Configuration> first = config.current();
+            assertTrue(first.isOk());
+            final RetVal<Integer> a1 = first.result().requireInt("a");
+            final RetVal<Integer> b1 = first.result().requireInt("b");
+            write("a = 1234\nb = 5679\n");
+            final RetVal<Configuration> second = config.reload();
+            assertTrue(second.isOk());
+            assertNotSame(first.result(), second.result());
+            final RetVal<Integer> a2 = second.result().requireInt("a");
+            final RetVal<Integer> b2 = second.result().requireInt("b");
+            assertTrue(a1.isOk());
+            assertTrue(a2.isOk());
+            assertTrue(b1.isOk());
+            assertTrue(b2.isOk());
+            assertSame(a1.result(), a2.result());
+            assertEquals(5679, b2.result());
+        }
+    }
+
+    @Test
+    void reload_readProblem() throws IOException {
+        write("a = 1\n");
+        try (ReloadableConfiguration config = watch()) {
+            final AtomicInteger calls = new AtomicInteger();
+            config.addValidator(List.of("a"), (c) -> {
+                calls.incrementAndGet();
+                return c.requireInt("a");
+            });
+            Files.delete(this.file);
+            final RetVal<Configuration> missing = config.reload();
+            assertEquals(1, missing.anyProblems().size());
+            assertEquals(1, calls.get());
+
+            final AtomicInteger laterCalls = new AtomicInteger();
+            config.addValidator(List.of("b"), (c) -> {
+                laterCalls.incrementAndGet();
+                return c.requireInt("b");
+            });
+            // Runs on the last configuration that could be read.
+            assertEquals(1, laterCalls.get());
+            assertEquals(1, config.current().anyProblems().size());
+
+            write("a = 1\nb = 2\n");
+            assertTrue(config.reload().isOk());
+            assertEquals(1, calls.get());
+            assertEquals(2, laterCalls.get());
+        }
+    }
+
+    @Test
+    void watch_initialReadProblem() throws IOException {
+        try (ReloadableConfiguration config = watch()) {
+            final AtomicInteger calls = new AtomicInteger();
+            config.addValidator(List.of("a"), (c) -> {
+                calls.incrementAndGet();
+                return c.requireInt("a");
+            });
+            assertEquals(0, calls.get());
+            assertEquals(1, config.current().anyProblems().size());
+            write("a = 1\n");
+            assertTrue(config.reload().isOk());
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    void checkForChanges() throws IOException, InterruptedException {
+        write("a = 1\n");
+        try (ReloadableConfiguration config = watch()) {
+            assertFalse(config.checkForChanges());
+            write("a = 2\n");
+            final long end = System.currentTimeMillis() + 30000;
+            boolean changed = false;
+            while (! changed && System.currentTimeMillis() < end) {
+                Thread.sleep(20);
+                changed = config.checkForChanges();
+            }
+            assertTrue(changed);
+            final RetVal<Configuration> current = config.current();
+            assertTrue(current.isOk());
+            assertEquals("2", current.result().get("a"));
+        }
+    }
+
+    @Test
+    void awaitChanges() throws IOException, InterruptedException {
+        write("a = 1\n");
+        try (ReloadableConfiguration config = watch()) {
+            assertFalse(config.awaitChanges(1, TimeUnit.MILLISECONDS));
+            Files.write(this.directory.resolve("other.txt"), new byte[] { 1 });
+            // The other file's change is skipped, and the wait lasts until the timeout.
+            final long start = System.nanoTime();
+            assertFalse(config.awaitChanges(500, TimeUnit.MILLISECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(500));
+            write("a = 2\n");
+            assertTrue(config.awaitChanges(30, TimeUnit.SECONDS));
+            final RetVal<Configuration> current = config.current();
+            assertTrue(current.isOk());
+            assertEquals("2", current.result().get("a"));
+        } finally {
+            Files.delete(this.directory.resolve("other.txt"));
+        }
+    }
+
+    ReloadableConfiguration watch() {
+        final RetVal<ReloadableConfiguration> res = ReloadableConfiguration.watch(this.file);
+        assertTrue(res.isOk());
+        return res.result();
+    }
+
+    void write(final String text) throws IOException {
+        Files.write(this.file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static List<String> messages(final ProblemContainer res) {
+        final List<String> ret = new ArrayList<>();
+        for (final Problem problem : res.anyProblems()) {
+            ret.add(problem.toString());
+        }
+        return ret;
+    }
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        this.monitor = MockProblemMonitor.setup();
+        this.directory = Files.createTempDirectory("reload");
+        this.file = this.directory.resolve("a.properties");
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        final List<?> neverObserved = this.monitor.getNeverObserved();
+        this.monitor.tearDown();
+        Files.deleteIfExists(this.file);
+        Files.delete(this.directory);
+        assertEquals(List.of(), neverObserved);
+    }
+}
@@ -1,6 +1,7 @@
 // Released under the MIT License. 
 package net.groboclown.retval.contract;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -1670,6 +1671,28 @@ public abstract class MonitoredContract {
         assertNeverObserved(res);
     }
 
+    @Test
+    void nullable_appendProblems_problem() throws IOException {
+        final RetNullable<String> res = createForNullableProblems(List.of(
+                LocalizedProblem.from("a")));
+        res.appendProblems(new StringBuilder(), ";");
+        assertNeverObserved(res);
+    }
+
+    @Test
+    void val_appendProblems_problem() throws IOException {
+        final RetVal<String> res = createForValProblems(List.of(LocalizedProblem.from("a")));
+        res.appendProblems(new StringBuilder(), ";");
+        assertNeverObserved(res);
+    }
+
+    @Test
+    void void_appendProblems_problem() throws IOException {
+        final RetVoid res = createForVoidProblems(List.of(LocalizedProblem.from("a")));
+        res.appendProblems(new StringBuilder(), ";");
+        assertNeverObserved(res);
+    }
+
     // ----------------------------------------------------------------------
     // toString must never count as an observation.
 
@@ -1,6 +1,7 @@
 // Released under the MIT License. 
 package net.groboclown.retval.contract;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -1175,6 +1176,23 @@ public abstract class RetNullableContract {
         );
     }
 
+    @Test
+    void appendProblems_empty() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        createForNullable("x").appendProblems(out, ";");
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    void appendProblems_two() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        createForNullableProblems(List.of(
+                LocalizedProblem.from("a"),
+                LocalizedProblem.from("bb")
+        )).appendProblems(out, ";");
+        assertEquals("a;bb", out.toString());
+    }
+
     @Test
     void toString_ok() {
         assertEquals(
@@ -1,6 +1,7 @@
 // Released under the MIT License. 
 package net.groboclown.retval.contract;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -757,6 +758,23 @@ public abstract class RetValContract {
         );
     }
 
+    @Test
+    void appendProblems_empty() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        createForVal("x").appendProblems(out, ";");
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    void appendProblems_two() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        createForValProblems(List.of(
+                LocalizedProblem.from("a"),
+                LocalizedProblem.from("bb")
+        )).appendProblems(out, ";");
+        assertEquals("a;bb", out.toString());
+    }
+
     @Test
     void toString_ok() {
         assertEquals(
@@ -2,6 +2,7 @@
 
 package net.groboclown.retval.contract;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -126,6 +127,17 @@ public abstract class RetVoidContract {
         );
     }
 
+    @Test
+    void appendProblems_problem() throws IOException {
+        final RetVoid res = createForVoidProblems(List.of(
+                LocalizedProblem.from("x"),
+                LocalizedProblem.from("y")
+        ));
+        final StringBuilder out = new StringBuilder();
+        res.appendProblems(out, ";");
+        assertEquals("x;y", out.toString());
+    }
+
     @Test
     void then_ok() {
         final RetVoid orig = createForVoid();
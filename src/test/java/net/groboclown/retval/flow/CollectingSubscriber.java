@@ -0,0 +1,48 @@
+// Released under the MIT License.
+package net.groboclown.retval.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * Records the signals it receives, and requests a fixed number of items at a time.
+ */
+class CollectingSubscriber<T> implements Flow.Subscriber<T> {
+    private final long batchSize;
+    final List<T> items = new ArrayList<>();
+    Flow.Subscription subscription;
+    Throwable error;
+    boolean completed = false;
+    private long remaining = 0;
+
+    CollectingSubscriber(final long batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        this.subscription = subscription;
+        this.remaining = this.batchSize;
+        subscription.request(this.batchSize);
+    }
+
+    @Override
+    public void onNext(final T item) {
+        this.items.add(item);
+        if (--this.remaining <= 0) {
+            this.remaining = this.batchSize;
+            this.subscription.request(this.batchSize);
+        }
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        this.error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+        this.completed = true;
+    }
+}
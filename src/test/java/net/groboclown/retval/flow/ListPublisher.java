@@ -0,0 +1,63 @@
+// Released under the MIT License.
+package net.groboclown.retval.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * A synchronous publisher of a fixed list of items, which honors the subscriber's demand.
+ */
+class ListPublisher<T> implements Flow.Publisher<T> {
+    private final List<T> items;
+    private final Throwable error;
+    final List<Long> requests = new ArrayList<>();
+    boolean cancelled = false;
+    int published = 0;
+
+    ListPublisher(final List<T> items) {
+        this(items, null);
+    }
+
+    ListPublisher(final List<T> items, final Throwable error) {
+        this.items = items;
+        this.error = error;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            private long demand = 0;
+            private boolean emitting = false;
+            private boolean done = false;
+
+            @Override
+            public void request(final long n) {
+                requests.add(n);
+                this.demand += n;
+                if (this.emitting) {
+                    return;
+                }
+                this.emitting = true;
+                while (this.demand > 0 && ! cancelled && published < items.size()) {
+                    this.demand--;
+                    subscriber.onNext(items.get(published++));
+                }
+                if (! this.done && ! cancelled && published >= items.size()) {
+                    this.done = true;
+                    if (error == null) {
+                        subscriber.onComplete();
+                    } else {
+                        subscriber.onError(error);
+                    }
+                }
+                this.emitting = false;
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+        });
+    }
+}
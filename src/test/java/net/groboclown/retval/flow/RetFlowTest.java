@@ -0,0 +1,263 @@
+// Released under the MIT License.
+package net.groboclown.retval.flow;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.LocalizedProblem;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetFlowTest {
+    MockProblemMonitor monitor;
+
+    @Test
+    void splitProblems_ok() {
+        final ListPublisher<RetVal<String>> source = new ListPublisher<>(List.of(
+                RetVal.ok("a"), RetVal.ok("b"), RetVal.ok("c")));
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(2);
+        final CompletableFuture<RetVoid> res = RetFlow.splitProblems(source, target);
+        assertTrue(res.isDone());
+        assertTrue(res.join().isOk());
+        assertEquals(List.of("a", "b", "c"), target.items);
+        assertTrue(target.completed);
+        assertEquals(List.of(2L, 2L), source.requests);
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void splitProblems_problems() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final Problem p2 = LocalizedProblem.from("p2");
+        final ListPublisher<RetVal<String>> source = new ListPublisher<>(List.of(
+                RetVal.fromProblem(p1), RetVal.ok("a"), RetVal.fromProblem(p2), RetVal.ok("b")));
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(10);
+        final RetVoid res = RetFlow.splitProblems(source, target).join();
+        assertEquals(List.of(p1, p2), res.anyProblems());
+        assertEquals(List.of("a", "b"), target.items);
+        assertTrue(target.completed);
+        assertEquals(List.of(10L, 1L, 1L), source.requests);
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void splitProblems_error() {
+        final IOException ex = new IOException("bad");
+        final ListPublisher<RetVal<String>> source = new ListPublisher<>(
+                List.of(RetVal.ok("a")), ex);
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(10);
+        final RetVoid res = RetFlow.splitProblems(source, target).join();
+        assertFalse(target.completed);
+        assertSame(ex, target.error);
+        assertEquals(List.of("a"), target.items);
+        assertSame(
+                ex,
+                ((UnhandledExceptionProblem) res.anyProblems().iterator().next())
+                        .getSourceException());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void splitProblems_targetCancels() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final ListPublisher<RetVal<String>> source = new ListPublisher<>(List.of(
+                RetVal.fromProblem(p1), RetVal.ok("a"), RetVal.ok("b")));
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(1) {
+            @Override
+            public void onNext(final String item) {
+                super.onNext(item);
+                this.subscription.cancel();
+                // A second cancel must not do anything.
+                this.subscription.cancel();
+            }
+        };
+        final RetVoid res = RetFlow.splitProblems(source, target).join();
+        assertTrue(source.cancelled);
+        assertEquals(List.of("a"), target.items);
+        assertFalse(target.completed);
+        assertEquals(List.of(p1), res.anyProblems());
+        // "b" was never published, so it is the only value that was not observed.
+        assertEquals(1, this.monitor.getNeverObserved().size());
+    }
+
+    @Test
+    void splitProblems_cancelBeforeSource() {
+        final ListPublisher<RetVal<String>> source = new ListPublisher<>(List.of(
+                RetVal.ok("a")));
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(1) {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.cancel();
+            }
+        };
+        final RetVoid res = RetFlow.splitProblems(source, target).join();
+        assertTrue(res.isOk());
+        assertEquals(List.of(), source.requests);
+        assertEquals(List.of(), target.items);
+    }
+
+    @Test
+    void onNext_afterCancel() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(1);
+        final ProblemSplittingSubscriber<String> splitter =
+                new ProblemSplittingSubscriber<>(target);
+        splitter.cancel();
+        splitter.onNext(RetVal.ok("a"));
+        splitter.onNext(RetVal.fromProblem(p1));
+        assertEquals(List.of(), target.items);
+        assertTrue(splitter.getResult().join().isOk());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void terminal_afterCancel() {
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(1);
+        final ProblemSplittingSubscriber<String> splitter =
+                new ProblemSplittingSubscriber<>(target);
+        splitter.cancel();
+        splitter.onComplete();
+        splitter.onError(new IOException("bad"));
+        assertFalse(target.completed);
+        assertNull(target.error);
+        assertTrue(splitter.getResult().join().isOk());
+    }
+
+    @Test
+    void cancel_afterComplete() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(1);
+        final ProblemSplittingSubscriber<String> splitter =
+                new ProblemSplittingSubscriber<>(target);
+        new ListPublisher<RetVal<String>>(List.of()).subscribe(splitter);
+        splitter.onNext(RetVal.fromProblem(p1));
+        splitter.onComplete();
+        splitter.cancel();
+        assertTrue(target.completed);
+        assertEquals(List.of(p1), splitter.getResult().join().anyProblems());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void request_nonPositive_beforeSource() {
+        final ListPublisher<RetVal<String>> source = new ListPublisher<>(List.of(
+                RetVal.ok("a")));
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(1);
+        final ProblemSplittingSubscriber<String> splitter =
+                new ProblemSplittingSubscriber<>(target);
+        splitter.request(-1);
+        source.subscribe(splitter);
+        assertTrue(source.cancelled);
+        assertEquals(List.of(), source.requests);
+        assertSame(IllegalArgumentException.class, target.error.getClass());
+        assertSame(
+                target.error,
+                ((UnhandledExceptionProblem) splitter.getResult().join().anyProblems()
+                        .iterator().next()).getSourceException());
+    }
+
+    @Test
+    void request_nonPositive() {
+        final ListPublisher<RetVal<String>> source = new ListPublisher<>(List.of(
+                RetVal.ok("a")));
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(0);
+        final RetVoid res = RetFlow.splitProblems(source, target).join();
+        assertTrue(source.cancelled);
+        assertEquals(List.of(), source.requests);
+        assertEquals(List.of(), target.items);
+        assertSame(IllegalArgumentException.class, target.error.getClass());
+        assertEquals(1, res.anyProblems().size());
+        // "a" was never published.
+        assertEquals(1, this.monitor.getNeverObserved().size());
+    }
+
+    @Test
+    void onSubscribe_twice() {
+        final ListPublisher<RetVal<String>> first = new ListPublisher<>(List.of());
+        final ListPublisher<RetVal<String>> second = new ListPublisher<>(List.of());
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(1);
+        final ProblemSplittingSubscriber<String> splitter =
+                new ProblemSplittingSubscriber<>(target);
+        first.subscribe(splitter);
+        second.subscribe(splitter);
+        assertFalse(first.cancelled);
+        assertTrue(second.cancelled);
+    }
+
+    @Test
+    void request_overflow() {
+        final ListPublisher<RetVal<String>> source = new ListPublisher<>(List.of());
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(1);
+        final ProblemSplittingSubscriber<String> splitter =
+                new ProblemSplittingSubscriber<>(target);
+        splitter.request(Long.MAX_VALUE);
+        splitter.request(Long.MAX_VALUE);
+        source.subscribe(splitter);
+        assertEquals(List.of(Long.MAX_VALUE), source.requests);
+    }
+
+    @Test
+    void validateEach() {
+        final Problem p1 = LocalizedProblem.from("p1");
+        final IllegalStateException ex = new IllegalStateException("bad");
+        final ListPublisher<String> source = new ListPublisher<>(List.of("a", "", "x"));
+        final CollectingSubscriber<String> target = new CollectingSubscriber<>(10);
+        final RetVoid res = RetFlow.splitProblems(
+                RetFlow.validateEach(source, (v) -> {
+                    if ("x".equals(v)) {
+                        throw ex;
+                    }
+                    return v.isEmpty() ? RetVal.fromProblem(p1) : RetVal.ok(v + "!");
+                }),
+                target).join();
+        assertEquals(List.of("a!"), target.items);
+        assertTrue(target.completed);
+        final List<Problem> problems = new ArrayList<>(res.anyProblems());
+        assertEquals(2, problems.size());
+        assertSame(p1, problems.get(0));
+        assertSame(ex, ((UnhandledExceptionProblem) problems.get(1)).getSourceException());
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void validateEach_threadDeath() {
+        final ThreadDeath err = new ThreadDeath();
+        final ListPublisher<String> source = new ListPublisher<>(List.of("a"));
+        final CollectingSubscriber<RetVal<String>> target = new CollectingSubscriber<>(10);
+        final Flow.Publisher<RetVal<String>> publisher = RetFlow.validateEach(source, (v) -> {
+            throw err;
+        });
+        assertSame(err, assertThrows(ThreadDeath.class, () -> publisher.subscribe(target)));
+        assertEquals(List.of(), target.items);
+    }
+
+    @Test
+    void validateEach_error() {
+        final IOException ex = new IOException("bad");
+        final ListPublisher<String> source = new ListPublisher<>(List.of(), ex);
+        final CollectingSubscriber<RetVal<String>> target = new CollectingSubscriber<>(10);
+        RetFlow.validateEach(source, RetVal::ok).subscribe(target);
+        assertSame(ex, target.error);
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+        this.monitor.traceEnabled = true;
+    }
+
+    @AfterEach
+    void afterEach() {
+        this.monitor.tearDown();
+    }
+}
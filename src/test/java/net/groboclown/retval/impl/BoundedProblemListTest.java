@@ -0,0 +1,59 @@
+// Released under the MIT License.
+package net.groboclown.retval.impl;
+
+import java.util.List;
+import net.groboclown.retval.problems.LocalizedProblem;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedProblemListTest {
+    @Test
+    void negative() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedProblemList(-1));
+    }
+
+    @Test
+    void underLimit() {
+        final LocalizedProblem p1 = LocalizedProblem.from("p1");
+        final BoundedProblemList list = new BoundedProblemList(2);
+        list.add(p1);
+        assertEquals(List.of(p1), list);
+        assertEquals(0, list.droppedCount());
+    }
+
+    @Test
+    void overLimit() {
+        final LocalizedProblem p1 = LocalizedProblem.from("p1");
+        final LocalizedProblem p2 = LocalizedProblem.from("p2");
+        final BoundedProblemList list = new BoundedProblemList(1);
+        list.addAll(List.of(p1, p2, p2));
+        assertEquals(2, list.size());
+        assertEquals(2, list.droppedCount());
+        assertSame(p1, list.get(0));
+        assertEquals(String.format("and %,d more problems", 2), list.get(1).localMessage());
+        // The summary is cached until the count changes.
+        assertSame(list.get(1), list.get(1));
+        final Object summary = list.get(1);
+        list.add(p2);
+        assertNotSame(summary, list.get(1));
+        assertEquals(String.format("and %,d more problems", 3), list.get(1).localMessage());
+    }
+
+    @Test
+    void zero() {
+        final BoundedProblemList list = new BoundedProblemList(0);
+        list.add(LocalizedProblem.from("p1"));
+        assertEquals(1, list.size());
+        assertEquals(1, list.droppedCount());
+    }
+
+    @Test
+    void addNull() {
+        final BoundedProblemList list = new BoundedProblemList(0);
+        assertThrows(NullPointerException.class, () -> list.add(null));
+    }
+}
@@ -0,0 +1,61 @@
+// Released under the MIT License.
+package net.groboclown.retval.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.problems.LocalizedProblem;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DeduplicatedProblemListTest {
+    @Test
+    void equalProblems() {
+        final LocalizedProblem a1 = LocalizedProblem.from("a");
+        final LocalizedProblem a2 = LocalizedProblem.from("a");
+        final LocalizedProblem b = LocalizedProblem.from("b");
+        final DeduplicatedProblemList list = new DeduplicatedProblemList((p) -> p);
+        list.addAll(List.of(a1, b, a2, a2));
+        assertEquals(2, list.size());
+        assertSame(a1, list.get(0));
+        assertSame(b, list.get(1));
+        assertEquals(3, list.getCount(0));
+        assertEquals(1, list.getCount(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getCount(2));
+    }
+
+    @Test
+    void customKey() {
+        final LocalizedProblem a = LocalizedProblem.from("a: 1");
+        final LocalizedProblem b = LocalizedProblem.from("a: 2");
+        final DeduplicatedProblemList list = new DeduplicatedProblemList(
+                (p) -> p.localMessage().substring(0, 1));
+        list.add(a);
+        list.add(b);
+        assertEquals(List.of(a), list);
+        assertEquals(2, list.getCount(0));
+    }
+
+    @Test
+    void manyKeys() {
+        final List<Problem> expected = new ArrayList<>();
+        final DeduplicatedProblemList list = new DeduplicatedProblemList((p) -> p);
+        for (int i = 0; i < 20; i++) {
+            final LocalizedProblem problem = LocalizedProblem.from(Integer.toString(i));
+            expected.add(problem);
+            list.add(problem);
+            list.add(problem);
+        }
+        assertEquals(expected, list);
+        assertEquals(2, list.getCount(19));
+    }
+
+    @Test
+    void nullKey() {
+        final DeduplicatedProblemList list = new DeduplicatedProblemList((p) -> null);
+        assertThrows(NullPointerException.class, () -> list.add(LocalizedProblem.from("a")));
+    }
+}
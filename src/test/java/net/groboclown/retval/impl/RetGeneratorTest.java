@@ -2,6 +2,7 @@
 package net.groboclown.retval.impl;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import net.groboclown.retval.Problem;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -35,6 +37,52 @@ class RetGeneratorTest {
         assertSame(factory, RetGenerator.getFactory());
     }
 
+    @Test
+    void setThreadFactory_localOnly() throws InterruptedException {
+        RetGenerator.setFactory(MonitoredFactory.INSTANCE);
+        RetGenerator.setThreadFactory(SimpleFactory.INSTANCE);
+        assertSame(SimpleFactory.INSTANCE, RetGenerator.getThreadFactory());
+        assertSame(SimpleFactory.INSTANCE, RetGenerator.getActiveFactory());
+        assertSame(MonitoredFactory.INSTANCE, RetGenerator.getFactory());
+        assertSame(SimpleReturnValue.class, RetVal.ok("x").getClass());
+
+        final AtomicReference<ReturnTypeFactory> otherThread = new AtomicReference<>();
+        final Thread thread = new Thread(() -> otherThread.set(RetGenerator.getActiveFactory()));
+        thread.start();
+        thread.join();
+        assertSame(MonitoredFactory.INSTANCE, otherThread.get());
+    }
+
+    @Test
+    void setThreadFactory_null() {
+        RetGenerator.setFactory(MonitoredFactory.INSTANCE);
+        RetGenerator.setThreadFactory(SimpleFactory.INSTANCE);
+        RetGenerator.setThreadFactory(null);
+        assertNull(RetGenerator.getThreadFactory());
+        assertSame(MonitoredFactory.INSTANCE, RetGenerator.getActiveFactory());
+    }
+
+    @Test
+    void withFactory_restores() {
+        final MockFactory factory = new MockFactory();
+        RetGenerator.setThreadFactory(SimpleFactory.INSTANCE);
+        final ReturnTypeFactory inner = RetGenerator.withFactory(
+                factory, RetGenerator::getActiveFactory);
+        assertSame(factory, inner);
+        assertSame(SimpleFactory.INSTANCE, RetGenerator.getThreadFactory());
+    }
+
+    @Test
+    void withFactory_exception() {
+        final MockFactory factory = new MockFactory();
+        try {
+            RetGenerator.withFactory(factory, () -> RetVal.ok("x"));
+            fail("Did not use the thread factory");
+        } catch (final IllegalStateException e) {
+            // Thrown by the mock factory.
+        }
+        assertNull(RetGenerator.getThreadFactory());
+    }
 
     @BeforeEach
     void beforeEach() {
@@ -46,6 +94,7 @@ class RetGeneratorTest {
 
     @AfterEach
     void afterEach() {
+        RetGenerator.setThreadFactory(null);
         RetGenerator.setFactory(this.original);
     }
 
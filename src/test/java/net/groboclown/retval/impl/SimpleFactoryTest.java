@@ -0,0 +1,25 @@
+// Released under the MIT License.
+package net.groboclown.retval.impl;
+
+import net.groboclown.retval.RetNullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimpleFactoryTest {
+    @Test
+    void createNullableOk_null_shared() {
+        final RetNullable<String> first = SimpleFactory.INSTANCE.createNullableOk(null);
+        final RetNullable<Integer> second = SimpleFactory.INSTANCE.createNullableOk(null);
+        assertSame(first, second);
+        assertTrue(first.isOk());
+        assertNull(first.result());
+    }
+
+    @Test
+    void createNullableOk_value() {
+        final RetNullable<String> first = SimpleFactory.INSTANCE.createNullableOk("a");
+        assertNotSame(first, SimpleFactory.INSTANCE.createNullableOk("a"));
+        assertEquals("a", first.result());
+    }
+}
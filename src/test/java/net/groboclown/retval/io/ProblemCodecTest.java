@@ -0,0 +1,308 @@
+// Released under the MIT License.
+package net.groboclown.retval.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemCollector;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.SourcedProblem;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.FileProblem;
+import net.groboclown.retval.problems.CodedProblem;
+import net.groboclown.retval.problems.LocalizedProblem;
+import net.groboclown.retval.problems.ProblemCode;
+import net.groboclown.retval.problems.ProblemSeverity;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemCodecTest {
+    MockProblemMonitor monitor;
+
+    @Test
+    void encode_empty() {
+        final ByteBuffer data = ProblemCodec.encode(List.of());
+        assertEquals(3, data.remaining());
+        final RetVal<List<Problem>> res = ProblemCodec.decode(data);
+        assertTrue(res.isOk());
+        assertEquals(List.of(), res.result());
+        assertEquals(0, data.remaining());
+    }
+
+    @Test
+    void encode_roundTrip() {
+        final Problem sourced = new SourcedProblem() {
+            @Override
+            public String getSource() {
+                return "http://x";
+            }
+
+            @Override
+            public String localMessage() {
+                return "\u00e9t\u00e9";
+            }
+        };
+        final ByteBuffer data = ProblemCodec.encode(List.of(
+                LocalizedProblem.from("a"),
+                FileProblem.from("f.txt", "a"),
+                sourced,
+                UnhandledExceptionProblem.wrap(new IllegalStateException("f.txt"))));
+        // version, 5 strings, 4 problems
+        assertEquals(1 + 1 + (2 + 6 + 9 + 6 + 32) + 1 + (2 + 5 + 5 + 3), data.remaining());
+        final RetVal<List<Problem>> res = ProblemCodec.decode(data);
+        assertTrue(res.isOk());
+        final List<Problem> problems = res.result();
+        assertEquals(4, problems.size());
+
+        assertEquals(LocalizedProblem.from("a"), problems.get(0));
+        assertSame(problems.get(0), problems.get(0));
+
+        final FileProblem file = (FileProblem) problems.get(1);
+        assertEquals("f.txt", file.getSource());
+        assertEquals("a", file.localMessage());
+
+        final FileProblem other = (FileProblem) problems.get(2);
+        assertEquals("http://x", other.getSource());
+        assertEquals("\u00e9t\u00e9", other.localMessage());
+
+        final UnhandledExceptionProblem exception = (UnhandledExceptionProblem) problems.get(3);
+        assertTrue(exception.isStackless());
+        assertEquals("f.txt", exception.localMessage());
+        assertEquals("java.lang.IllegalStateException", exception.getExceptionClassName());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> problems.get(4));
+        assertThrows(UnsupportedOperationException.class, () -> problems.remove(0));
+    }
+
+    @Test
+    void encode_position() {
+        final ByteBuffer data = ProblemCodec.encode(List.of(
+                FileProblem.at("a.csv", 12, 3, "bad"),
+                FileProblem.at("a.csv", 3000000000L, 0, "bad")));
+        final RetVal<List<Problem>> res = ProblemCodec.decode(data);
+        assertTrue(res.isOk());
+        final FileProblem first = (FileProblem) res.result().get(0);
+        assertEquals(12, first.getLine());
+        assertEquals(3, first.getColumn());
+        assertEquals("a.csv:12:3: bad", first.toString());
+        final FileProblem second = (FileProblem) res.result().get(1);
+        assertEquals(3000000000L, second.getLine());
+        assertEquals(0, second.getColumn());
+    }
+
+    @Test
+    void encode_coded() {
+        final ProblemCode code = ProblemCode.register(-400, ProblemSeverity.WARNING, "%s!");
+        final ProblemCode other = ProblemCode.register(401, ProblemSeverity.ERROR, "%s?");
+        final ByteBuffer data = ProblemCodec.encode(List.of(
+                CodedProblem.of(code, "a"),
+                CodedProblem.of(other, "b")));
+        // version, 2 strings, 2 problems of kind, message, 2 byte id and severity
+        assertEquals(1 + 1 + (3 + 3) + 1 + (5 + 5), data.remaining());
+        final RetVal<List<Problem>> res = ProblemCodec.decode(data);
+        assertTrue(res.isOk());
+        assertEquals(
+                List.of(
+                        CodedProblem.withMessage(code, "a!"),
+                        CodedProblem.withMessage(other, "b?")),
+                res.result());
+    }
+
+    @Test
+    void encode_codedNotRegistered() {
+        // Code 402 is never registered, and 403 is registered with another severity.
+        final ProblemCode code = ProblemCode.register(403, ProblemSeverity.INFO, "%s");
+        final RetVal<List<Problem>> res = ProblemCodec.decode(ByteBuffer.wrap(new byte[] {
+                2, 1, 1, 'a', 2, 3, 0, (byte) 0xa4, 6, 2, 3, 0, (byte) 0xa6, 6, 2 }));
+        assertTrue(res.isOk());
+        assertEquals(
+                List.of(LocalizedProblem.from("a"), LocalizedProblem.from("a")),
+                res.result());
+        assertSame(ProblemSeverity.INFO, code.getSeverity());
+    }
+
+    @Test
+    void decode_badSeverity() {
+        final RetVal<List<Problem>> res = ProblemCodec.decode(
+                ByteBuffer.wrap(new byte[] { 2, 1, 1, 'a', 1, 3, 0, 0, 3 }));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals("invalid encoded problems: unknown severity 3", res.debugProblems(";"));
+    }
+
+    @Test
+    void decode_badCodeId() {
+        final RetVal<List<Problem>> res = ProblemCodec.decode(
+                ByteBuffer.wrap(new byte[] { 2, 1, 1, 'a', 1, 3, 0, -1, -1, -1, -1, 0x10, 0 }));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                "invalid encoded problems: invalid variable length integer",
+                res.debugProblems(";"));
+    }
+
+    @Test
+    void encode_container() {
+        final ProblemCollector collector = ProblemCollector.from()
+                .withProblem(LocalizedProblem.from("x"));
+        final RetVal<List<Problem>> res = ProblemCodec.decode(ProblemCodec.encode(collector));
+        assertTrue(res.isOk());
+        assertEquals(List.of(LocalizedProblem.from("x")), res.result());
+    }
+
+    @Test
+    void encode_intoBuffer() {
+        final ByteBuffer data = ByteBuffer.allocateDirect(64);
+        ProblemCodec.encode(List.of(LocalizedProblem.from("a")), data);
+        ProblemCodec.encode(List.of(FileProblem.from("b", "c")), data);
+        data.flip();
+        final RetVal<List<Problem>> first = ProblemCodec.decode(data);
+        final RetVal<List<Problem>> second = ProblemCodec.decode(data);
+        assertTrue(first.isOk());
+        assertTrue(second.isOk());
+        assertEquals(List.of(LocalizedProblem.from("a")), first.result());
+        assertEquals("b: c", second.result().get(0).toString());
+        assertEquals(0, data.remaining());
+    }
+
+    @Test
+    void encode_intoBuffer_overflow() {
+        final ByteBuffer data = ByteBuffer.allocate(4);
+        assertThrows(
+                BufferOverflowException.class,
+                () -> ProblemCodec.encode(List.of(LocalizedProblem.from("abc")), data));
+        assertEquals(0, data.position());
+    }
+
+    @Test
+    void encode_largeTable() {
+        final StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            longText.append('x');
+        }
+        final Problem[] problems = new Problem[130];
+        for (int i = 0; i < problems.length; i++) {
+            problems[i] = LocalizedProblem.from(longText.toString() + i);
+        }
+        final RetVal<List<Problem>> res = ProblemCodec.decode(
+                ProblemCodec.encode(List.of(problems)));
+        assertTrue(res.isOk());
+        assertEquals(List.of(problems), res.result());
+    }
+
+    @Test
+    void decode_badVersion() {
+        final ByteBuffer data = ByteBuffer.wrap(new byte[] { 9, 0, 0 });
+        final RetVal<List<Problem>> res = ProblemCodec.decode(data);
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                "invalid encoded problems: unsupported format version 9",
+                res.debugProblems(";"));
+        assertEquals(0, data.position());
+    }
+
+    @Test
+    void decode_empty() {
+        final RetVal<List<Problem>> res = ProblemCodec.decode(ByteBuffer.allocate(0));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals("invalid encoded problems: data is truncated", res.debugProblems(";"));
+    }
+
+    @Test
+    void decode_truncatedString() {
+        final RetVal<List<Problem>> res = ProblemCodec.decode(
+                ByteBuffer.wrap(new byte[] { 2, 1, 5, 'a' }));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals("invalid encoded problems: data is truncated", res.debugProblems(";"));
+    }
+
+    @Test
+    void decode_unknownKind() {
+        final RetVal<List<Problem>> res = ProblemCodec.decode(
+                ByteBuffer.wrap(new byte[] { 2, 1, 1, 'a', 1, 4, 0 }));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals("invalid encoded problems: unknown problem kind 4", res.debugProblems(";"));
+    }
+
+    @Test
+    void decode_negativeKind() {
+        final RetVal<List<Problem>> res = ProblemCodec.decode(
+                ByteBuffer.wrap(new byte[] { 2, 1, 1, 'a', 1, -1, 0 }));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                "invalid encoded problems: unknown problem kind -1", res.debugProblems(";"));
+    }
+
+    @Test
+    void decode_badRef() {
+        final RetVal<List<Problem>> res = ProblemCodec.decode(
+                ByteBuffer.wrap(new byte[] { 2, 1, 1, 'a', 1, 1, 0, 1 }));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                "invalid encoded problems: string index 1 out of range",
+                res.debugProblems(";"));
+    }
+
+    @Test
+    void readVarint() {
+        for (final int value : new int[] { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE }) {
+            final ByteBuffer data = ByteBuffer.allocate(5);
+            ProblemCodec.writeVarint(data, value);
+            assertEquals(ProblemCodec.varintSize(value), data.position());
+            data.flip();
+            assertEquals(value, ProblemCodec.readVarint(data));
+            assertEquals(0, data.remaining());
+        }
+    }
+
+    @Test
+    void readVarlong() {
+        for (final long value : new long[] { 0, 1, 127, 1L << 35, Long.MAX_VALUE }) {
+            final ByteBuffer data = ByteBuffer.allocate(9);
+            ProblemCodec.writeVarint(data, value);
+            assertEquals(ProblemCodec.varintSize(value), data.position());
+            data.flip();
+            assertEquals(value, ProblemCodec.readVarlong(data));
+            assertEquals(0, data.remaining());
+        }
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ProblemCodec.readVarlong(ByteBuffer.wrap(
+                        new byte[] { -1, -1, -1, -1, -1, -1, -1, -1, -1, 0 })));
+    }
+
+    @Test
+    void decode_truncatedRecord() {
+        final RetVal<List<Problem>> res = ProblemCodec.decode(
+                ByteBuffer.wrap(new byte[] { 2, 1, 1, 'a', 1, 1, 0, 0, 5 }));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals("invalid encoded problems: data is truncated", res.debugProblems(";"));
+    }
+
+    @Test
+    void readVarint_tooLarge() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ProblemCodec.readVarint(ByteBuffer.wrap(
+                        new byte[] { -1, -1, -1, -1, 8 })));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ProblemCodec.readVarint(ByteBuffer.wrap(
+                        new byte[] { -1, -1, -1, -1, -1, 0 })));
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+    }
+
+    @AfterEach
+    void afterEach() {
+        final List<?> neverObserved = this.monitor.getNeverObserved();
+        this.monitor.tearDown();
+        assertEquals(List.of(), neverObserved);
+    }
+}
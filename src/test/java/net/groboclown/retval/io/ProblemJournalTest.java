@@ -0,0 +1,200 @@
+// Released under the MIT License.
+package net.groboclown.retval.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.FileProblem;
+import net.groboclown.retval.problems.LocalizedProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemJournalTest {
+    MockProblemMonitor monitor;
+    Path directory;
+
+    @Test
+    void create_negativeLimit() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ProblemJournal.create(this.directory, -1));
+    }
+
+    @Test
+    void create_noDirectory() {
+        final Path missing = this.directory.resolve("missing");
+        final RetVal<ProblemJournal> res = ProblemJournal.create(missing, 1);
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                missing.toString(),
+                ((FileProblem) res.anyProblems().iterator().next()).getSource());
+    }
+
+    @Test
+    void add_inMemory() throws IOException {
+        final RetVal<ProblemJournal> res = ProblemJournal.create(this.directory, 2);
+        assertTrue(res.isOk());
+        try (ProblemJournal journal = res.result()) {
+            final Problem problem = LocalizedProblem.from("a");
+            assertTrue(journal.add(problem));
+            assertSame(problem, journal.get(0));
+            assertEquals(1, journal.size());
+            assertEquals(0, journal.getStoredCount());
+            assertThrows(IndexOutOfBoundsException.class, () -> journal.get(1));
+        }
+    }
+
+    @Test
+    void add_stored() throws IOException {
+        final RetVal<ProblemJournal> res = ProblemJournal.create(this.directory, 1);
+        assertTrue(res.isOk());
+        try (ProblemJournal journal = res.result()) {
+            final Problem first = LocalizedProblem.from("a");
+            journal.add(first);
+            journal.add(LocalizedProblem.from("b"));
+            journal.add(FileProblem.from("f", "c"));
+            assertEquals(3, journal.size());
+            assertEquals(2, journal.getStoredCount());
+            assertSame(first, journal.get(0));
+            assertEquals(LocalizedProblem.from("b"), journal.get(1));
+            assertEquals("f: c", journal.get(2).toString());
+            assertEquals(List.of(first, LocalizedProblem.from("b")), journal.subList(0, 2));
+        }
+        try (Stream<Path> files = Files.list(this.directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void add_segments() throws IOException {
+        try (ProblemJournal journal = new ProblemJournal(openChannel(), 0, 8, 64)) {
+            final List<Problem> expected = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                final Problem problem = LocalizedProblem.from(i % 5 == 0 ? "long text " + i : "x");
+                expected.add(problem);
+                journal.add(problem);
+            }
+            assertEquals(40, journal.getStoredCount());
+            assertEquals(expected, journal);
+        }
+    }
+
+    @Test
+    void add_sharedStrings() throws IOException {
+        final FileChannel channel = openChannel();
+        final String source = "/data/incoming/2026/10/customer-records.csv";
+        try (ProblemJournal journal = new ProblemJournal(channel, 0, 64, 64)) {
+            for (int i = 1; i <= 100; i++) {
+                journal.add(FileProblem.at(source, i, 2, "bad value"));
+            }
+            // The two strings take 55 bytes, and each record 5 bytes.
+            assertTrue(channel.size() <= 1024, "file size " + channel.size());
+            assertEquals(100, journal.getStoredCount());
+            final FileProblem last = (FileProblem) journal.get(99);
+            assertEquals(source + ":100:2: bad value", last.toString());
+        }
+    }
+
+    @Test
+    void add_manyStrings() throws IOException {
+        try (ProblemJournal journal = new ProblemJournal(openChannel(), 0, 256, 64)) {
+            final List<Problem> expected = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                final Problem problem = FileProblem.from("source " + i, "message " + i);
+                expected.add(problem);
+                journal.add(problem);
+            }
+            // 100 distinct strings, more than the initial string table holds.
+            assertEquals(50, journal.getStoredCount());
+            for (int i = 0; i < 50; i++) {
+                assertEquals(expected.get(i).toString(), journal.get(i).toString());
+            }
+        }
+    }
+
+    @Test
+    void add_stringIndexLimit() throws IOException {
+        final FileChannel channel = openChannel();
+        try (ProblemJournal journal = new ProblemJournal(channel, 0, 64, 1)) {
+            for (int i = 0; i < 20; i++) {
+                journal.add(LocalizedProblem.from(i % 2 == 0 ? "indexed text" : "other text"));
+            }
+            // Only the first string is shared; the other is written for each problem.
+            assertTrue(channel.size() > 10 * 11, "file size " + channel.size());
+            assertTrue(channel.size() <= 320, "file size " + channel.size());
+            assertEquals(LocalizedProblem.from("indexed text"), journal.get(18));
+            assertEquals(LocalizedProblem.from("other text"), journal.get(19));
+        }
+    }
+
+    @Test
+    void snapshot() throws IOException {
+        try (ProblemJournal journal = new ProblemJournal(openChannel(), 1, 64, 64)) {
+            journal.add(LocalizedProblem.from("a"));
+            journal.add(LocalizedProblem.from("b"));
+            final List<Problem> snapshot = journal.snapshot();
+            journal.add(LocalizedProblem.from("c"));
+            assertEquals(2, snapshot.size());
+            assertEquals(
+                    List.of(LocalizedProblem.from("a"), LocalizedProblem.from("b")),
+                    snapshot);
+            assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(2));
+            assertThrows(
+                    UnsupportedOperationException.class,
+                    () -> snapshot.add(LocalizedProblem.from("d")));
+        }
+    }
+
+    @Test
+    void close() throws IOException {
+        final ProblemJournal journal = new ProblemJournal(openChannel(), 1, 64, 64);
+        journal.add(LocalizedProblem.from("a"));
+        journal.add(LocalizedProblem.from("b"));
+        journal.close();
+        assertEquals(LocalizedProblem.from("a"), journal.get(0));
+        assertThrows(IllegalStateException.class, () -> journal.get(1));
+        assertThrows(IllegalStateException.class, () -> journal.add(LocalizedProblem.from("c")));
+    }
+
+    @Test
+    void add_fileError() throws IOException {
+        final FileChannel channel = openChannel();
+        channel.close();
+        final ProblemJournal journal = new ProblemJournal(channel, 0, 64, 64);
+        assertThrows(UncheckedIOException.class, () -> journal.add(LocalizedProblem.from("a")));
+        assertEquals(0, journal.size());
+    }
+
+    FileChannel openChannel() throws IOException {
+        return FileChannel.open(
+                Files.createTempFile(this.directory, "test", ".journal"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        this.monitor = MockProblemMonitor.setup();
+        this.directory = Files.createTempDirectory("journal");
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        final List<?> neverObserved = this.monitor.getNeverObserved();
+        this.monitor.tearDown();
+        Files.delete(this.directory);
+        assertEquals(List.of(), neverObserved);
+    }
+}
@@ -0,0 +1,154 @@
+// Released under the MIT License.
+package net.groboclown.retval.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import net.groboclown.retval.ProblemCollector;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.CodedProblem;
+import net.groboclown.retval.problems.FileProblem;
+import net.groboclown.retval.problems.LocalizedProblem;
+import net.groboclown.retval.problems.ProblemCode;
+import net.groboclown.retval.problems.ProblemSeverity;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemJsonEncoderTest {
+    private static final ProblemCode CODE = ProblemCode.register(
+            -300, ProblemSeverity.WARNING, "%s is deprecated");
+
+    MockProblemMonitor monitor;
+
+    @Test
+    void writeArray_empty() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        ProblemJsonEncoder.writeArray(RetVoid.ok(), out);
+        assertEquals("[]", out.toString());
+    }
+
+    @Test
+    void writeArray_problems() throws IOException {
+        final ProblemCollector problems = ProblemCollector.from().withProblem(
+                LocalizedProblem.from("a"), LocalizedProblem.from("b"));
+        final StringWriter out = new StringWriter();
+        ProblemJsonEncoder.writeArray(problems, out);
+        assertEquals("[{\"message\":\"a\"},{\"message\":\"b\"}]", out.toString());
+    }
+
+    @Test
+    void writeArray_stream() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProblemJsonEncoder.writeArrayUtf8(
+                RetVal.fromProblem(LocalizedProblem.from("\u00e9t\u00e9")), out);
+        assertEquals(
+                "[{\"message\":\"\u00e9t\u00e9\"}]",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void writeLines_printStream() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final PrintStream out = new PrintStream(bytes, true, "UTF-8");
+        ProblemJsonEncoder.writeLines(RetVoid.fromProblem(LocalizedProblem.from("a")), out);
+        ProblemJsonEncoder.writeArrayUtf8(RetVoid.fromProblem(LocalizedProblem.from("b")), out);
+        assertEquals(
+                "{\"message\":\"a\"}\n[{\"message\":\"b\"}]",
+                new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void writeLines_empty() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        ProblemJsonEncoder.writeLines(ProblemCollector.from(), out);
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    void writeLines_problems() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProblemJsonEncoder.writeLinesUtf8(
+                RetVoid.fromProblem(LocalizedProblem.from("a"), LocalizedProblem.from("b")),
+                out);
+        assertEquals(
+                "{\"message\":\"a\"}\n{\"message\":\"b\"}\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(List.of(), this.monitor.getNeverObserved());
+    }
+
+    @Test
+    void writeProblem_sourced() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        ProblemJsonEncoder.writeProblem(FileProblem.from("a.txt", "not found"), out);
+        assertEquals("{\"message\":\"not found\",\"source\":\"a.txt\"}", out.toString());
+    }
+
+    @Test
+    void writeProblem_position() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        ProblemJsonEncoder.writeProblem(FileProblem.at("a.csv", 12, 3, "bad"), out);
+        out.append('\n');
+        ProblemJsonEncoder.writeProblem(FileProblem.at("a.csv", 12, 0, "bad"), out);
+        assertEquals(
+                "{\"message\":\"bad\",\"source\":\"a.csv\",\"line\":12,\"column\":3}\n"
+                        + "{\"message\":\"bad\",\"source\":\"a.csv\",\"line\":12}",
+                out.toString());
+    }
+
+    @Test
+    void writeProblem_exception() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        ProblemJsonEncoder.writeProblem(
+                UnhandledExceptionProblem.wrap(new IllegalStateException("bad")), out);
+        assertEquals(
+                "{\"message\":\"bad\",\"exception\":\"java.lang.IllegalStateException\"}",
+                out.toString());
+    }
+
+    @Test
+    void writeProblem_coded() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        ProblemJsonEncoder.writeProblem(CodedProblem.of(CODE, "x"), out);
+        assertEquals(
+                "{\"message\":\"x is deprecated\",\"code\":-300,\"severity\":\"WARNING\"}",
+                out.toString());
+    }
+
+    @Test
+    void writeString_escapes() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        ProblemJsonEncoder.writeString("a\"b\\c\nd\re\tf\bg\fh\u0001i\u001fj", out);
+        assertEquals(
+                "\"a\\\"b\\\\c\\nd\\re\\tf\\bg\\fh\\u0001i\\u001fj\"",
+                out.toString());
+    }
+
+    @Test
+    void writeString_plain() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        ProblemJsonEncoder.writeString("", out);
+        ProblemJsonEncoder.writeString("abc \u2603", out);
+        assertEquals("\"\"\"abc \u2603\"", out.toString());
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+    }
+
+    @AfterEach
+    void afterEach() {
+        this.monitor.tearDown();
+    }
+}
@@ -0,0 +1,322 @@
+// Released under the MIT License.
+package net.groboclown.retval.nio;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.ProblemContainer;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.ColumnProblem;
+import net.groboclown.retval.problems.FileProblem;
+import net.groboclown.retval.problems.LocalizedProblem;
+import net.groboclown.retval.problems.UnhandledExceptionProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineValidatorTest {
+    MockProblemMonitor monitor;
+    ExecutorService executor;
+    Path directory;
+    Path file;
+
+    @Test
+    void validate_ok() throws IOException {
+        write("a\nb\n");
+        final List<String> lines = new ArrayList<>();
+        final RetVoid res = LineValidator.validate(this.file, (line) -> {
+            lines.add(line);
+            return RetVal.ok(line);
+        });
+        assertTrue(res.isOk());
+        assertEquals(List.of("a", "b"), lines);
+    }
+
+    @Test
+    void validate_problems() throws IOException {
+        write("ok\r\nbad\rabx\n\nbad");
+        final RetVoid res = LineValidator.validate(this.file, LineValidatorTest::check);
+        assertEquals(
+                List.of(
+                        this.file + ":2: bad line",
+                        this.file + ":3:3: found x",
+                        this.file + ":5: bad line"),
+                messages(res));
+        final FileProblem problem = (FileProblem) res.anyProblems().iterator().next();
+        assertEquals(this.file.toString(), problem.getSource());
+        assertEquals(2, problem.getLine());
+        assertEquals(0, problem.getColumn());
+    }
+
+    @Test
+    void validate_invalidData() throws IOException {
+        Files.write(this.file, new byte[] { 'b', 'a', 'd', '\n', 'a', (byte) 0xff, '\n', 'c' });
+        final RetVoid res = LineValidator.validate(this.file, LineValidatorTest::check);
+        assertEquals(
+                List.of(this.file + ":1: bad line", this.file + ":2: invalid UTF-8 data"),
+                messages(res));
+    }
+
+    @Test
+    void validate_missing() {
+        final RetVoid res = LineValidator.validate(this.file, LineValidatorTest::check);
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                this.file.toString(),
+                ((FileProblem) res.anyProblems().iterator().next()).getSource());
+    }
+
+    @Test
+    void validateParallel_matchesValidate() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append(i % 7 == 0 ? "bad" : "line " + i)
+                    .append(i % 11 == 0 ? " x" : "")
+                    .append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        text.append("last x");
+        write(text.toString());
+        final RetVoid expected = LineValidator.validate(this.file, LineValidatorTest::check);
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 16, this.executor, LineValidatorTest::check);
+        assertEquals(messages(expected), messages(res));
+        assertEquals(this.file + ":201:6: found x", messages(res).get(messages(res).size() - 1));
+    }
+
+    @Test
+    void validateParallel_carriageReturns() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append(i % 7 == 0 ? "bad" : "line " + i)
+                    .append(i % 11 == 0 ? " x" : "")
+                    .append(i % 5 == 0 ? "\r\n" : "\r");
+        }
+        text.append("last x");
+        write(text.toString());
+        final RetVoid expected = LineValidator.validate(this.file, LineValidatorTest::check);
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 16, this.executor, LineValidatorTest::check);
+        assertEquals(messages(expected), messages(res));
+        assertEquals(this.file + ":201:6: found x", messages(res).get(messages(res).size() - 1));
+    }
+
+    @Test
+    void validateParallel_carriageReturnChunks() throws IOException {
+        // The validator exception stops its chunk, so there is one problem per chunk.
+        write("a\rb\r\nc\rd");
+        final IllegalStateException ex = new IllegalStateException("broken");
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 1, this.executor, (line) -> {
+                    throw ex;
+                });
+        assertEquals(4, res.anyProblems().size());
+    }
+
+    @Test
+    void validateParallel_carriageReturnAtScanEnd() throws IOException {
+        // The first scan starts at position 1 and ends on the carriage return.
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 4096; i++) {
+            text.append('a');
+        }
+        write(text + "\r\nbad\rbad");
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 1, this.executor, LineValidatorTest::check);
+        assertEquals(
+                List.of(this.file + ":2: bad line", this.file + ":3: bad line"),
+                messages(res));
+    }
+
+    @Test
+    void validateParallel_defaultSize() throws IOException {
+        write("a\nbad\n");
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, this.executor, LineValidatorTest::check);
+        assertEquals(List.of(this.file + ":2: bad line"), messages(res));
+    }
+
+    @Test
+    void validateParallel_empty() throws IOException {
+        write("");
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 4, this.executor, LineValidatorTest::check);
+        assertTrue(res.isOk());
+    }
+
+    @Test
+    void validateParallel_invalidData() throws IOException {
+        Files.write(this.file, new byte[] {
+                'b', 'a', 'd', '\n', 'a', (byte) 0xff, '\n', 'c', '\n', 'b', 'a', 'd' });
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 2, this.executor, LineValidatorTest::check);
+        assertEquals(
+                List.of(this.file + ":1: bad line", this.file + ":2: invalid UTF-8 data"),
+                messages(res));
+    }
+
+    @Test
+    void validateParallel_exception() throws IOException {
+        write("a\nb\n");
+        final IllegalStateException ex = new IllegalStateException("broken");
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 1, this.executor, (line) -> {
+                    throw ex;
+                });
+        assertEquals(2, res.anyProblems().size());
+        for (final Problem problem : res.anyProblems()) {
+            assertSame(ex, ((UnhandledExceptionProblem) problem).getSourceException());
+        }
+    }
+
+    @Test
+    void validate_lineTooLong() throws IOException {
+        writeSparse(Integer.MAX_VALUE + 10L);
+        final RetVoid res = LineValidator.validate(
+                this.file, Integer.MAX_VALUE, LineValidatorTest::check);
+        assertEquals(
+                List.of(this.file + ": a line after byte 0 is too long to validate"),
+                messages(res));
+    }
+
+    @Test
+    void validateParallel_lineTooLong() throws IOException {
+        writeSparse(Integer.MAX_VALUE + 10L);
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, Integer.MAX_VALUE, this.executor, LineValidatorTest::check);
+        assertEquals(
+                List.of(this.file + ": a line after byte 0 is too long to validate"),
+                messages(res));
+    }
+
+    @Test
+    void validateParallel_mapError() throws IOException {
+        write("a\nb\n");
+        // Runs the tasks after cutting the file short, so mapping the chunks fails.
+        final ExecutorService truncating = new AbstractExecutorService() {
+            @Override
+            public void execute(final Runnable command) {
+                try (FileChannel channel = FileChannel.open(
+                        LineValidatorTest.this.file, StandardOpenOption.WRITE)) {
+                    channel.truncate(0);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                command.run();
+            }
+
+            @Override
+            public void shutdown() {
+                // Nothing to shut down.
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return List.of();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return false;
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return false;
+            }
+
+            @Override
+            public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+                return false;
+            }
+        };
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 1, truncating, LineValidatorTest::check);
+        assertEquals(2, res.anyProblems().size());
+        for (final Problem problem : res.anyProblems()) {
+            assertSame(FileProblem.class, problem.getClass());
+            assertEquals(this.file.toString(), ((FileProblem) problem).getSource());
+        }
+    }
+
+    @Test
+    void validateParallel_missing() {
+        final RetVoid res = LineValidator.validateParallel(
+                this.file, 4, this.executor, LineValidatorTest::check);
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                this.file.toString(),
+                ((FileProblem) res.anyProblems().iterator().next()).getSource());
+    }
+
+    @Test
+    void validateParallel_badSize() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> LineValidator.validateParallel(
+                        this.file, 0, this.executor, LineValidatorTest::check));
+    }
+
+    static ProblemContainer check(final String line) {
+        if (line.startsWith("bad")) {
+            return RetVoid.fromProblem(LocalizedProblem.from("bad line"));
+        }
+        final int pos = line.indexOf('x');
+        if (pos >= 0) {
+            return RetVoid.fromProblem(ColumnProblem.from(pos + 1, "found x"));
+        }
+        return RetVoid.ok();
+    }
+
+    static List<String> messages(final ProblemContainer res) {
+        final List<String> ret = new ArrayList<>();
+        for (final Problem problem : res.anyProblems()) {
+            ret.add(problem.toString());
+        }
+        return ret;
+    }
+
+    void write(final String text) throws IOException {
+        Files.write(this.file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A sparse file of zero bytes, so large files don't need the disk space.
+    void writeSparse(final long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(this.file.toFile(), "rw")) {
+            raf.setLength(size);
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        this.monitor = MockProblemMonitor.setup();
+        this.executor = Executors.newFixedThreadPool(4);
+        this.directory = Files.createTempDirectory("lines");
+        this.file = this.directory.resolve("data.txt");
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        this.executor.shutdownNow();
+        final List<?> neverObserved = this.monitor.getNeverObserved();
+        this.monitor.tearDown();
+        Files.deleteIfExists(this.file);
+        Files.delete(this.directory);
+        assertEquals(List.of(), neverObserved);
+    }
+}
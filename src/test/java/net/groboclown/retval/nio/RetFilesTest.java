@@ -0,0 +1,155 @@
+// Released under the MIT License.
+package net.groboclown.retval.nio;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import net.groboclown.retval.problems.FileProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetFilesTest {
+    MockProblemMonitor monitor;
+    Path directory;
+    Path file;
+
+    @Test
+    void mapFile() throws IOException {
+        Files.write(this.file, new byte[] { 1, 2, 3 });
+        final RetVal<ByteBuffer> res = RetFiles.mapFile(this.file);
+        assertTrue(res.isOk());
+        final ByteBuffer contents = res.result();
+        assertTrue(contents.isReadOnly());
+        assertEquals(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), contents);
+    }
+
+    @Test
+    void mapFile_empty() throws IOException {
+        Files.write(this.file, new byte[0]);
+        final RetVal<ByteBuffer> res = RetFiles.mapFile(this.file);
+        assertTrue(res.isOk());
+        assertEquals(0, res.result().remaining());
+    }
+
+    @Test
+    void mapFile_missing() {
+        final RetVal<ByteBuffer> res = RetFiles.mapFile(this.file);
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                this.file.toString(),
+                ((FileProblem) res.anyProblems().iterator().next()).getSource());
+    }
+
+    @Test
+    void mapFile_tooLarge() throws IOException {
+        // Sparse on most file systems, so this doesn't use the disk space.
+        try (RandomAccessFile out = new RandomAccessFile(this.file.toFile(), "rw")) {
+            out.setLength(Integer.MAX_VALUE + 1L);
+        }
+        final RetVal<ByteBuffer> res = RetFiles.mapFile(this.file);
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                this.file + ": file is too large to map; read it in chunks",
+                res.anyProblems().iterator().next().toString());
+    }
+
+    @Test
+    void readUtf8() throws IOException {
+        Files.write(this.file, "a \u00e9 \u4e2d".getBytes(StandardCharsets.UTF_8));
+        final RetVal<CharBuffer> res = RetFiles.readUtf8(this.file);
+        assertTrue(res.isOk());
+        assertEquals("a \u00e9 \u4e2d", res.result().toString());
+    }
+
+    @Test
+    void readUtf8_invalid() throws IOException {
+        Files.write(this.file, new byte[] { 'a', 'b', (byte) 0xff, 'c' });
+        final RetVal<CharBuffer> res = RetFiles.readUtf8(this.file);
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                this.file + ": invalid UTF-8 data at byte 2",
+                res.anyProblems().iterator().next().toString());
+    }
+
+    @Test
+    void readUtf8_missing() {
+        final RetVal<CharBuffer> res = RetFiles.readUtf8(this.file);
+        assertEquals(1, res.anyProblems().size());
+    }
+
+    @Test
+    void forEachChunk() throws IOException {
+        Files.write(this.file, new byte[] { 1, 2, 3, 4, 5 });
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        final RetVoid res = RetFiles.forEachChunk(this.file, 2, chunks::add);
+        assertTrue(res.isOk());
+        assertEquals(
+                List.of(
+                        ByteBuffer.wrap(new byte[] { 1, 2 }),
+                        ByteBuffer.wrap(new byte[] { 3, 4 }),
+                        ByteBuffer.wrap(new byte[] { 5 })),
+                chunks);
+        assertTrue(chunks.get(0).isReadOnly());
+    }
+
+    @Test
+    void forEachChunk_defaultSize() throws IOException {
+        Files.write(this.file, new byte[] { 1, 2, 3 });
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        final RetVoid res = RetFiles.forEachChunk(this.file, chunks::add);
+        assertTrue(res.isOk());
+        assertEquals(List.of(ByteBuffer.wrap(new byte[] { 1, 2, 3 })), chunks);
+    }
+
+    @Test
+    void forEachChunk_empty() throws IOException {
+        Files.write(this.file, new byte[0]);
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        assertTrue(RetFiles.forEachChunk(this.file, 2, chunks::add).isOk());
+        assertEquals(List.of(), chunks);
+    }
+
+    @Test
+    void forEachChunk_missing() {
+        final RetVoid res = RetFiles.forEachChunk(this.file, 2, (chunk) -> fail("read chunk"));
+        assertEquals(1, res.anyProblems().size());
+        assertEquals(
+                this.file.toString(),
+                ((FileProblem) res.anyProblems().iterator().next()).getSource());
+    }
+
+    @Test
+    void forEachChunk_badSize() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RetFiles.forEachChunk(this.file, 0, (chunk) -> fail("read chunk")));
+    }
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        this.monitor = MockProblemMonitor.setup();
+        this.directory = Files.createTempDirectory("retfiles");
+        this.file = this.directory.resolve("data.bin");
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        final List<?> neverObserved = this.monitor.getNeverObserved();
+        this.monitor.tearDown();
+        Files.deleteIfExists(this.file);
+        Files.delete(this.directory);
+        assertEquals(List.of(), neverObserved);
+    }
+}
@@ -0,0 +1,84 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.groboclown.retval.ProblemCollector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodedProblemTest {
+    private static final ProblemCode MISMATCH = ProblemCode.register(
+            -200, ProblemSeverity.ERROR, "%s: expected %s");
+    private static final ProblemCode OTHER = ProblemCode.register(
+            -201, ProblemSeverity.ERROR, "%s: expected %s");
+
+    @Test
+    void of() {
+        final CodedProblem problem = CodedProblem.of(MISMATCH, "a", 1);
+        assertSame(MISMATCH, problem.getCode());
+        assertEquals("a: expected 1", problem.localMessage());
+        assertEquals("a: expected 1", problem.toString());
+        assertSame(problem.localMessage(), problem.localMessage());
+    }
+
+    @Test
+    void testHashCode() {
+        final CodedProblem a1 = CodedProblem.of(MISMATCH, "a", 1);
+        final CodedProblem a2 = CodedProblem.of(MISMATCH, "a", 1);
+        final CodedProblem b = CodedProblem.of(MISMATCH, "b", 1);
+
+        assertEquals(a1.hashCode(), a2.hashCode());
+        assertNotEquals(a1.hashCode(), b.hashCode());
+        assertNotEquals(a1.hashCode(), CodedProblem.of(MISMATCH, "a", 2).hashCode());
+    }
+
+    @Test
+    void of_badTemplate() {
+        assertEquals("%s: expected %s [a]", CodedProblem.of(MISMATCH, "a").localMessage());
+    }
+
+    @Test
+    void withMessage() {
+        final CodedProblem problem = CodedProblem.withMessage(MISMATCH, "x: expected y");
+        assertSame(MISMATCH, problem.getCode());
+        assertEquals("x: expected y", problem.localMessage());
+        assertEquals(CodedProblem.withMessage(MISMATCH, "x: expected y"), problem);
+        assertNotEquals(CodedProblem.withMessage(MISMATCH, "x: expected z"), problem);
+        assertNotEquals(CodedProblem.of(MISMATCH, "x: expected y"), problem);
+        assertThrows(NullPointerException.class, () -> CodedProblem.withMessage(MISMATCH, null));
+    }
+
+    @Test
+    void of_null() {
+        assertThrows(NullPointerException.class, () -> CodedProblem.of(null));
+        assertThrows(NullPointerException.class, () -> CodedProblem.of(MISMATCH, (Object[]) null));
+    }
+
+    @Test
+    void testEquals() {
+        final CodedProblem a1 = CodedProblem.of(MISMATCH, "a", 1);
+        final CodedProblem a2 = CodedProblem.of(MISMATCH, "a", 1);
+        final CodedProblem b = CodedProblem.of(MISMATCH, "b", 1);
+        final CodedProblem other = CodedProblem.of(OTHER, "a", 1);
+
+        assertTrue(a1.equals(a1));
+        assertTrue(a1.equals(a2));
+        assertTrue(a2.equals(a1));
+        assertFalse(a1.equals(b));
+        assertFalse(a1.equals(other));
+        assertFalse(a1.equals(null));
+        assertFalse(a1.equals(LocalizedProblem.from("a: expected 1")));
+    }
+
+    @Test
+    void groupByCode() {
+        final CodedProblem a = CodedProblem.of(MISMATCH, "a", 1);
+        final ProblemCollector pc = ProblemCollector.deduplicated(
+                (p) -> ((CodedProblem) p).getCode())
+                .withProblem(a, CodedProblem.of(MISMATCH, "b", 2), CodedProblem.of(OTHER, "c", 3));
+        assertEquals(2, pc.anyProblems().size());
+        assertEquals(List.of(2L, 1L), new ArrayList<>(pc.getOccurrenceCounts().values()));
+    }
+}
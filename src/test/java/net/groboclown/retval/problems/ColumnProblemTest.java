@@ -0,0 +1,21 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnProblemTest {
+    @Test
+    void from() {
+        final ColumnProblem problem = ColumnProblem.from(3, "pr");
+        assertEquals(3, problem.getColumn());
+        assertEquals("pr", problem.localMessage());
+        assertEquals("column 3: pr", problem.toString());
+    }
+
+    @Test
+    void from_badColumn() {
+        assertThrows(IllegalArgumentException.class, () -> ColumnProblem.from(0, "pr"));
+    }
+}
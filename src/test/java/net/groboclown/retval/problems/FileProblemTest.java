@@ -3,6 +3,8 @@ package net.groboclown.retval.problems;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,11 +39,113 @@ class FileProblemTest {
         assertEquals(name + ": " + name + " caused a problem", problem.toString());
     }
 
+    @Test
+    void from_path_string() {
+        final Path path = Paths.get("a", "fs");
+        final FileProblem problem = FileProblem.from(path, "pr");
+        assertSame(path, problem.getPath());
+        assertNull(problem.getCause());
+        assertEquals(path.toString(), problem.getSource());
+        assertEquals("pr", problem.localMessage());
+        assertEquals(path + ": pr", problem.toString());
+    }
+
+    @Test
+    void from_path_ex() {
+        final Path path = Paths.get("a", "fs");
+        final IOException ex = new IOException("pr");
+        final FileProblem problem = FileProblem.from(path, ex);
+        assertSame(path, problem.getPath());
+        assertSame(ex, problem.getCause());
+        assertEquals(path.toString(), problem.getSource());
+        assertEquals("pr", problem.localMessage());
+    }
+
+    @Test
+    void from_path_ex_withoutMessage() {
+        final Path path = Paths.get("a", "fs");
+        final FileProblem problem = FileProblem.from(path, new IOException());
+        assertEquals(path + " caused a problem", problem.localMessage());
+    }
+
+    @Test
+    void from_ex_lazyMessage() {
+        final int[] calls = { 0 };
+        final IOException ex = new IOException() {
+            @Override
+            public String getLocalizedMessage() {
+                calls[0]++;
+                return "pr";
+            }
+        };
+        final FileProblem problem = FileProblem.from("fs", ex);
+        assertEquals(0, calls[0]);
+        assertEquals("pr", problem.localMessage());
+        assertEquals("pr", problem.localMessage());
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    void from_ex_stackless() {
+        UnhandledExceptionProblem.setStacklessCapture(0);
+        try {
+            final Path path = Paths.get("a", "fs");
+            final FileProblem problem = FileProblem.from(path, new IOException("pr"));
+            assertNull(problem.getCause());
+            assertSame(path, problem.getPath());
+            assertEquals(path + ": pr", problem.toString());
+            final FileProblem noMessage = FileProblem.from("fs", new IOException());
+            assertNull(noMessage.getCause());
+            assertEquals("fs caused a problem", noMessage.localMessage());
+        } finally {
+            UnhandledExceptionProblem.setStacklessCapture(UnhandledExceptionProblem.FULL_CAPTURE);
+        }
+    }
+
     @Test
     void from_string_ex() {
         final FileProblem problem = FileProblem.from("fs", new IOException("pr"));
         assertEquals("fs", problem.getSource());
         assertEquals("pr", problem.localMessage());
         assertEquals("fs: pr", problem.toString());
+        assertEquals(0, problem.getLine());
+        assertEquals(0, problem.getColumn());
+        assertNull(problem.getPath());
+    }
+
+    @Test
+    void at_lineAndColumn() {
+        final FileProblem problem = FileProblem.at("fs", 12, 3, "pr");
+        assertEquals("fs", problem.getSource());
+        assertEquals(12, problem.getLine());
+        assertEquals(3, problem.getColumn());
+        assertEquals("fs:12:3: pr", problem.toString());
+    }
+
+    @Test
+    void at_path() {
+        final Path path = Paths.get("a", "fs");
+        final FileProblem problem = FileProblem.at(path, 12, 3, "pr");
+        assertSame(path, problem.getPath());
+        assertEquals(12, problem.getLine());
+        assertEquals(3, problem.getColumn());
+        assertEquals(path + ":12:3: pr", problem.toString());
+        assertThrows(IllegalArgumentException.class, () -> FileProblem.at(path, -1, 0, "pr"));
+    }
+
+    @Test
+    void at_lineOnly() {
+        assertEquals("fs:12: pr", FileProblem.at("fs", 12, 0, "pr").toString());
+    }
+
+    @Test
+    void at_noPosition() {
+        assertEquals("fs: pr", FileProblem.at("fs", 0, 3, "pr").toString());
+    }
+
+    @Test
+    void at_negative() {
+        assertThrows(IllegalArgumentException.class, () -> FileProblem.at("fs", -1, 0, "pr"));
+        assertThrows(IllegalArgumentException.class, () -> FileProblem.at("fs", 0, -1, "pr"));
     }
 }
@@ -0,0 +1,85 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import java.util.HashMap;
+import java.util.Map;
+import net.groboclown.retval.Problem;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormattedProblemTest {
+
+    @Test
+    void of() {
+        final FormattedProblem problem = FormattedProblem.of("%s: expected %d", "x", 2);
+        assertEquals("x: expected 2", problem.localMessage());
+        assertEquals("x: expected 2", problem.toString());
+    }
+
+    @Test
+    void of_noArgs() {
+        assertEquals("x", FormattedProblem.of("x").localMessage());
+    }
+
+    @Test
+    void localMessage_badTemplate() {
+        final FormattedProblem problem = FormattedProblem.of("%d items", "x");
+        assertEquals("%d items [x]", problem.localMessage());
+        assertEquals("%s items", FormattedProblem.of("%s items").localMessage());
+    }
+
+    @Test
+    void localMessage_lazy() {
+        final int[] calls = {0};
+        final Object arg = new Object() {
+            @Override
+            public String toString() {
+                calls[0]++;
+                return "a";
+            }
+        };
+        final FormattedProblem problem = FormattedProblem.of("[%s]", arg);
+        assertEquals(0, calls[0]);
+        assertEquals("[a]", problem.localMessage());
+        assertEquals(1, calls[0]);
+        // Cached.
+        assertSame(problem.localMessage(), problem.localMessage());
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    void of_null() {
+        assertThrows(NullPointerException.class, () -> FormattedProblem.of(null));
+        assertThrows(NullPointerException.class, () -> FormattedProblem.of("x", (Object[]) null));
+    }
+
+    @Test
+    void testHashCode() {
+        final FormattedProblem problemX1 = FormattedProblem.of("%s", "x");
+        final FormattedProblem problemX2 = FormattedProblem.of("%s", "x");
+        final FormattedProblem problemY = FormattedProblem.of("%s", "y");
+
+        final Map<Problem, String> map = new HashMap<>();
+        map.put(problemX1, "1");
+        map.put(problemY, "2");
+        map.put(problemX2, "3");
+        assertEquals(Map.of(problemX1, "3", problemY, "2"), map);
+    }
+
+    @Test
+    void testEquals() {
+        final FormattedProblem problemX1 = FormattedProblem.of("%s", "x");
+        final FormattedProblem problemX2 = FormattedProblem.of("%s", "x");
+        final FormattedProblem problemY = FormattedProblem.of("%s", "y");
+        final FormattedProblem problemZ = FormattedProblem.of("%s!", "x");
+
+        assertTrue(problemX1.equals(problemX1));
+        assertTrue(problemX1.equals(problemX2));
+        assertTrue(problemX2.equals(problemX1));
+        assertFalse(problemX1.equals(problemY));
+        assertFalse(problemX1.equals(problemZ));
+        assertFalse(problemX1.equals(null));
+        assertFalse(problemX1.equals(LocalizedProblem.from("x")));
+    }
+}
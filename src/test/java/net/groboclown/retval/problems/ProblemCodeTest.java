@@ -0,0 +1,42 @@
+// Released under the MIT License.
+package net.groboclown.retval.problems;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemCodeTest {
+
+    @Test
+    void register() {
+        final ProblemCode code = ProblemCode.register(
+                -100, ProblemSeverity.WARNING, "value %s");
+        assertEquals(-100, code.getId());
+        assertSame(ProblemSeverity.WARNING, code.getSeverity());
+        assertEquals("value %s", code.getTemplate());
+        assertEquals("-100 (WARNING): value %s", code.toString());
+        assertSame(code, ProblemCode.find(-100));
+    }
+
+    @Test
+    void register_again() {
+        final ProblemCode code = ProblemCode.register(-101, ProblemSeverity.ERROR, "x");
+        assertSame(code, ProblemCode.register(-101, ProblemSeverity.ERROR, "x"));
+    }
+
+    @Test
+    void register_conflict() {
+        ProblemCode.register(-102, ProblemSeverity.ERROR, "x");
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ProblemCode.register(-102, ProblemSeverity.INFO, "x"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ProblemCode.register(-102, ProblemSeverity.ERROR, "y"));
+    }
+
+    @Test
+    void find_missing() {
+        assertNull(ProblemCode.find(-199));
+    }
+}
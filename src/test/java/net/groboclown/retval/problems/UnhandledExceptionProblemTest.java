@@ -1,6 +1,7 @@
 // Released under the MIT License.
 package net.groboclown.retval.problems;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +23,7 @@ class UnhandledExceptionProblemTest {
         assertEquals("blah", wrapped.localMessage());
         assertEquals("blah", wrapped.toString());
         assertSame(t, wrapped.getSourceException());
+        assertEquals(LocalizedException.class.getName(), wrapped.getExceptionClassName());
     }
 
     @Test
@@ -33,6 +35,78 @@ class UnhandledExceptionProblemTest {
         assertSame(t, wrapped.getSourceException());
     }
 
+    @Test
+    void wrapStackless() {
+        final Throwable t = new LocalizedException("blah", null);
+        t.initCause(new IllegalStateException());
+        final UnhandledExceptionProblem wrapped = UnhandledExceptionProblem.wrapStackless(t, 2);
+        assertTrue(wrapped.isStackless());
+        assertEquals("blah", wrapped.localMessage());
+        assertEquals(LocalizedException.class.getName(), wrapped.getExceptionClassName());
+        final Throwable captured = wrapped.getSourceException();
+        assertNotSame(t, captured);
+        assertNull(captured.getCause());
+        assertEquals(LocalizedException.class.getName() + ": blah", captured.getMessage());
+        assertEquals(
+                LocalizedException.class.getName(),
+                ((UnhandledExceptionProblem.CapturedException) captured).getExceptionClassName());
+        assertEquals(2, captured.getStackTrace().length);
+        assertEquals(t.getStackTrace()[0], captured.getStackTrace()[0]);
+        captured.addSuppressed(new IllegalStateException());
+        assertEquals(0, captured.getSuppressed().length);
+    }
+
+    @Test
+    void wrapStackless_shortStack() {
+        final Throwable t = new LocalizedException(null, null);
+        t.setStackTrace(new StackTraceElement[] {
+                new StackTraceElement("a.B", "c", "B.java", 1)
+        });
+        final UnhandledExceptionProblem wrapped = UnhandledExceptionProblem.wrapStackless(t, 5);
+        assertEquals(t.getClass().getName(), wrapped.localMessage());
+        assertArrayEquals(t.getStackTrace(), wrapped.getSourceException().getStackTrace());
+    }
+
+    @Test
+    void fromCaptured() {
+        final UnhandledExceptionProblem problem =
+                UnhandledExceptionProblem.fromCaptured("a.BException", "blah");
+        assertTrue(problem.isStackless());
+        assertEquals("blah", problem.localMessage());
+        assertEquals("a.BException", problem.getExceptionClassName());
+        assertEquals(0, problem.getSourceException().getStackTrace().length);
+    }
+
+    @Test
+    void wrapStackless_negative() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> UnhandledExceptionProblem.wrapStackless(new Exception(), -1));
+    }
+
+    @Test
+    void setStacklessCapture() {
+        assertEquals(UnhandledExceptionProblem.FULL_CAPTURE,
+                UnhandledExceptionProblem.getStacklessCapture());
+        final Throwable t = new LocalizedException("blah", null);
+        assertFalse(UnhandledExceptionProblem.wrap(t).isStackless());
+
+        UnhandledExceptionProblem.setStacklessCapture(0);
+        assertEquals(0, UnhandledExceptionProblem.getStacklessCapture());
+        final UnhandledExceptionProblem wrapped = UnhandledExceptionProblem.wrap(t);
+        assertTrue(wrapped.isStackless());
+        assertEquals(0, wrapped.getSourceException().getStackTrace().length);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> UnhandledExceptionProblem.setStacklessCapture(-2));
+    }
+
+    @AfterEach
+    void afterEach() {
+        UnhandledExceptionProblem.setStacklessCapture(UnhandledExceptionProblem.FULL_CAPTURE);
+    }
+
     static class LocalizedException extends Exception {
         private final String localized;
 
@@ -0,0 +1,110 @@
+// Released under the MIT License.
+package net.groboclown.retval.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.groboclown.retval.Problem;
+import net.groboclown.retval.RetNullable;
+import net.groboclown.retval.RetVal;
+import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.monitor.MockProblemMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceRegistryTest {
+    MockProblemMonitor monitor;
+
+    @Test
+    void addResource() {
+        final ResourceRegistry registry = new ResourceRegistry();
+        assertTrue(registry.addResource("a", "x").isOk());
+        final RetVoid duplicate = registry.addResource("a", "y");
+        assertEquals(1, duplicate.anyProblems().size());
+        assertEquals("Duplicate resource a", duplicate.anyProblems().iterator().next().toString());
+        assertEquals(1, registry.size());
+        final RetVal<String> res = registry.requireResource("a", String.class);
+        assertTrue(res.isOk());
+        assertEquals("x", res.result());
+    }
+
+    @Test
+    void getResource() {
+        final ResourceRegistry registry = new ResourceRegistry();
+        assertTrue(registry.addResource("a", "x").isOk());
+        final RetNullable<CharSequence> found = registry.getResource("a", String.class);
+        assertTrue(found.isOk());
+        assertEquals("x", found.result());
+        final RetNullable<String> missing = registry.getResource("b", String.class);
+        assertTrue(missing.isOk());
+        assertNull(missing.result());
+        final RetNullable<String> noName = registry.getResource(null, String.class);
+        assertTrue(noName.isOk());
+        assertNull(noName.result());
+    }
+
+    @Test
+    void getResource_typeMismatch() {
+        final ResourceRegistry registry = new ResourceRegistry();
+        assertTrue(registry.addResource("a", "x").isOk());
+        final RetNullable<Integer> first = registry.getResource("a", Integer.class);
+        final RetVal<Integer> second = registry.requireResource("a", Integer.class);
+        final RetNullable<Long> other = registry.getResource("a", Long.class);
+        final Problem problem = first.anyProblems().iterator().next();
+        assertEquals(
+                "a: expected class java.lang.Integer, found class java.lang.String",
+                problem.localMessage());
+        assertSame(problem, second.anyProblems().iterator().next());
+        assertNotSame(problem, other.anyProblems().iterator().next());
+    }
+
+    @Test
+    void requireResource_missing() {
+        final ResourceRegistry registry = new ResourceRegistry();
+        final RetVal<String> res = registry.requireResource("a", String.class);
+        assertEquals(1, res.anyProblems().size());
+        assertEquals("a: resource not registered", res.anyProblems().iterator().next().toString());
+    }
+
+    @Test
+    void concurrentAdd() throws Exception {
+        final ResourceRegistry registry = new ResourceRegistry();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final int value = i;
+                tasks.add(() -> registry.addResource("r" + (value % 8), value)
+                        .anyProblems().isEmpty());
+            }
+            int added = 0;
+            for (final Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (result.get()) {
+                    added++;
+                }
+            }
+            assertEquals(8, added);
+            assertEquals(8, registry.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        this.monitor = MockProblemMonitor.setup();
+    }
+
+    @AfterEach
+    void afterEach() {
+        final List<?> neverObserved = this.monitor.getNeverObserved();
+        this.monitor.tearDown();
+        assertEquals(List.of(), neverObserved);
+    }
+}
@@ -9,6 +9,7 @@ import javax.annotation.Nullable;
 import net.groboclown.retval.RetNullable;
 import net.groboclown.retval.RetVal;
 import net.groboclown.retval.RetVoid;
+import net.groboclown.retval.problems.FormattedProblem;
 import net.groboclown.retval.problems.LocalizedProblem;
 
 /**
@@ -98,11 +99,10 @@ public class ResourceStore {
     }
 
     @Nonnull
-    private static LocalizedProblem typeMismatch(
+    private static FormattedProblem typeMismatch(
             @Nonnull final String name,
             @Nonnull final Class<?> expected,
             @Nonnull final Class<?> actual) {
-        return LocalizedProblem.from(
-                name + ": expected " + expected + ", found " + actual);
+        return FormattedProblem.of("%s: expected %s, found %s", name, expected, actual);
     }
 }